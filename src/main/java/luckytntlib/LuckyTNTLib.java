@@ -11,6 +11,7 @@ import luckytntlib.registry.ItemGroupModification;
 import luckytntlib.registry.ItemRegistry;
 import luckytntlib.registry.NetworkRegistry;
 import luckytntlib.registry.RegistryHelper;
+import luckytntlib.registry.ServerEventRegistry;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.loader.api.FabricLoader;
@@ -44,6 +45,7 @@ public class LuckyTNTLib implements ModInitializer {
     	ItemRegistry.init();
     	ItemGroupModification.init();
     	NetworkRegistry.init();
+    	ServerEventRegistry.init();
     	
     	if(FabricLoader.getInstance().getEnvironmentType() == EnvType.CLIENT) {
         	EventRegistry.init();
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 import org.jetbrains.annotations.Nullable;
 
 import luckytntlib.entity.PrimedLTNT;
+import luckytntlib.util.explosions.ExplosionNetworkAggregator;
 import net.minecraft.block.AbstractBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
@@ -134,7 +135,7 @@ public class LTNTBlock extends TntBlock{
 			tnt.setPosition(x + 0.5f, y, z + 0.5f);
 			tnt.setOwner(igniter);
 			level.spawnEntity(tnt);
-			level.playSound(null, new BlockPos((int)x, (int)y, (int)z), SoundEvents.ENTITY_TNT_PRIMED, SoundCategory.MASTER, 1, 1);
+			ExplosionNetworkAggregator.playSound(level, new BlockPos((int)x, (int)y, (int)z), SoundEvents.ENTITY_TNT_PRIMED, SoundCategory.MASTER, 1, 1);
 			if(level.getBlockState(new BlockPos((int)x, (int)y, (int)z)).getBlock() == this) {
 				level.setBlockState(new BlockPos((int)x, (int)y, (int)z), Blocks.AIR.getDefaultState(), 3);
 			}
@@ -16,6 +16,9 @@ public class LuckyTNTLibConfigValues {
 	
 	public static Config.BooleanValue PERFORMANT_EXPLOSION = new Config.BooleanValue(true, "performantExplosion");
 	public static Config.DoubleValue EXPLOSION_PERFORMANCE_FACTOR = new Config.DoubleValue(0.3d, 0.3d, 0.6d, "explosionPerformanceFactor");
+	public static Config.IntValue EXPLOSION_THREADS = new Config.IntValue(0, 0, 256, "explosionThreads");
+	public static Config.IntValue PARALLEL_EXPLOSION_THRESHOLD = new Config.IntValue(40, 0, 10000, "parallelExplosionThreshold");
+	public static Config.IntValue INCREMENTAL_EXPLOSION_BUDGET = new Config.IntValue(10000000, 100000, 50000000, "incrementalExplosionBudget");
 	
 	private static final UpdatePacketCreator CREATOR = new UpdatePacketCreator() {
 		
@@ -26,7 +29,7 @@ public class LuckyTNTLibConfigValues {
 	};
 	
 	public static void registerConfig() {
-		CONFIG = Config.Builder.of(LuckyTNTLib.MODID).addConfigValue(PERFORMANT_EXPLOSION).addConfigValue(EXPLOSION_PERFORMANCE_FACTOR).setPacketCreator(CREATOR).buildServer();
+		CONFIG = Config.Builder.of(LuckyTNTLib.MODID).addConfigValue(PERFORMANT_EXPLOSION).addConfigValue(EXPLOSION_PERFORMANCE_FACTOR).addConfigValue(EXPLOSION_THREADS).addConfigValue(PARALLEL_EXPLOSION_THRESHOLD).addConfigValue(INCREMENTAL_EXPLOSION_BUDGET).setPacketCreator(CREATOR).buildServer();
 		CONFIG.init();
 	}
 }
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.jetbrains.annotations.Nullable;
@@ -36,6 +37,8 @@ import net.minecraft.world.World;
  */
 public abstract class Config {
 	
+	private static final AtomicInteger VERSION = new AtomicInteger();
+	
 	protected final String modid;
 	protected final List<ConfigValue<?>> configValues;
 	protected final Optional<UpdatePacketCreator> packetCreator;
@@ -143,6 +146,15 @@ public abstract class Config {
 		}
 	}
 	
+	/**
+	 * Gets the version of all config values, which changes whenever any {@link ConfigValue} is set.
+	 * Can be used to find out whether values read earlier are still up to date without reading them again.
+	 * @return the current version
+	 */
+	public static int getVersion() {
+		return VERSION.get();
+	}
+	
 	/**
 	 * @return {@link Config#configValues}
 	 */
@@ -284,6 +296,7 @@ public abstract class Config {
 		 */
 		public void set(T value) {
 			this.value = value;
+			VERSION.incrementAndGet();
 		}
 
 		@Override
@@ -321,6 +334,7 @@ public abstract class Config {
 		
 		protected final int minValue;
 		protected final int maxValue;
+		protected int primitiveValue;
 		
 		/**
 		 * Creates a new IntValue
@@ -335,6 +349,7 @@ public abstract class Config {
 			super(defaultValue, name);
 			this.minValue = minValue;
 			this.maxValue = maxValue;
+			this.primitiveValue = defaultValue;
 			
 			if(defaultValue > maxValue || defaultValue < minValue || minValue > maxValue) {
 				throw new IllegalArgumentException("Value bounds are arbitrary for Config Value \"" + name + "\"");
@@ -348,7 +363,16 @@ public abstract class Config {
 		 * @param value  the new value
 		 */
 		public void set(Integer value) {
-			this.value = MathHelper.clamp(value, minValue, maxValue);
+			primitiveValue = MathHelper.clamp(value, minValue, maxValue);
+			super.set(primitiveValue);
+		}
+		
+		/**
+		 * Returns the same as {@link ConfigValue#get()} without unboxing an {@link Integer}
+		 * @return the stored value or the default value
+		 */
+		public int getInt() {
+			return primitiveValue;
 		}
 	}
 	
@@ -359,6 +383,7 @@ public abstract class Config {
 		
 		protected final double minValue;
 		protected final double maxValue;
+		protected double primitiveValue;
 		
 		/**
 		 * Creates a new DoubleValue
@@ -373,6 +398,7 @@ public abstract class Config {
 			super(defaultValue, name);
 			this.minValue = minValue;
 			this.maxValue = maxValue;
+			this.primitiveValue = defaultValue;
 			
 			if(defaultValue > maxValue || defaultValue < minValue || minValue > maxValue) {
 				throw new IllegalArgumentException("Value bounds are arbitrary for Config Value \"" + name + "\"");
@@ -386,7 +412,16 @@ public abstract class Config {
 		 * @param value  the new value
 		 */
 		public void set(Double value) {
-			this.value = MathHelper.clamp(value, minValue, maxValue);
+			primitiveValue = MathHelper.clamp(value, minValue, maxValue);
+			super.set(primitiveValue);
+		}
+		
+		/**
+		 * Returns the same as {@link ConfigValue#get()} without unboxing a {@link Double}
+		 * @return the stored value or the default value
+		 */
+		public double getDouble() {
+			return primitiveValue;
 		}
 	}
 	
@@ -395,6 +430,8 @@ public abstract class Config {
 	 */
 	public static class BooleanValue extends ConfigValue<Boolean> {
 		
+		protected boolean primitiveValue;
+		
 		/**
 		 * Creates a new BooleanValue
 		 * @param defaultValue  the default value
@@ -402,6 +439,21 @@ public abstract class Config {
 		 */
 		public BooleanValue(boolean defaultValue, String name) {
 			super(defaultValue, name);
+			this.primitiveValue = defaultValue;
+		}
+		
+		@Override
+		public void set(Boolean value) {
+			primitiveValue = value != null ? value : defaultValue;
+			super.set(value);
+		}
+		
+		/**
+		 * Returns the same as {@link ConfigValue#get()} without unboxing a {@link Boolean}
+		 * @return the stored value or the default value
+		 */
+		public boolean getBoolean() {
+			return primitiveValue;
 		}
 	}
 	
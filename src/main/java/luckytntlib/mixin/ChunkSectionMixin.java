@@ -0,0 +1,78 @@
+package luckytntlib.mixin;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import io.netty.buffer.Unpooled;
+import luckytntlib.util.LuckyTNTChunkSectionExtension;
+import luckytntlib.util.explosions.ExplosionSectionSummary;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * This Mixin counts the changes made to a chunk section, which is needed to validate explosions calculated ahead of time,
+ * and caches a summary and a hash of the section for explosions until the next change
+ */
+@Mixin(ChunkSection.class)
+public abstract class ChunkSectionMixin implements LuckyTNTChunkSectionExtension {
+	
+	@Unique
+	private int modificationCount = 0;
+	@Unique
+	@Nullable
+	private ExplosionSectionSummary explosionSummary = null;
+	@Unique
+	@Nullable
+	private float[] explosionSummaryTable = null;
+	@Unique
+	private int explosionSummaryCount = -1;
+	@Unique
+	private int explosionHash = 0;
+	@Unique
+	private int explosionHashCount = -1;
+	
+	@Inject(method = "setBlockState(IIILnet/minecraft/block/BlockState;Z)Lnet/minecraft/block/BlockState;", at = @At("HEAD"))
+	private void injectionSetBlockState(int x, int y, int z, BlockState state, boolean lock, CallbackInfoReturnable<BlockState> info) {
+		modificationCount++;
+	}
+	
+	@Inject(method = "readDataPacket", at = @At("HEAD"))
+	private void injectionReadDataPacket(PacketByteBuf buf, CallbackInfo info) {
+		modificationCount++;
+	}
+	
+	@Unique
+	public int getModificationCount() {
+		return modificationCount;
+	}
+	
+	@Unique
+	@Nullable
+	public ExplosionSectionSummary getExplosionSummary(float[] resistances) {
+		if(explosionSummaryCount != modificationCount || explosionSummaryTable != resistances) {
+			explosionSummary = ExplosionSectionSummary.of(((ChunkSection)(Object)this).getBlockStateContainer(), resistances);
+			explosionSummaryTable = resistances;
+			explosionSummaryCount = modificationCount;
+		}
+		return explosionSummary;
+	}
+	
+	@Unique
+	public int getExplosionHash() {
+		if(explosionHashCount != modificationCount) {
+			PalettedContainer<BlockState> states = ((ChunkSection)(Object)this).getBlockStateContainer();
+			PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer(states.getPacketSize()));
+			states.writePacket(buf);
+			explosionHash = buf.hashCode();
+			explosionHashCount = modificationCount;
+		}
+		return explosionHash;
+	}
+}
@@ -0,0 +1,17 @@
+package luckytntlib.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ThreadedAnvilChunkStorage;
+
+/**
+ * This Mixin gives access to the chunk holders of a level, which is needed to send the pending block changes of a chunk right away
+ */
+@Mixin(ThreadedAnvilChunkStorage.class)
+public interface ThreadedAnvilChunkStorageAccessor {
+
+	@Invoker("getChunkHolder")
+	ChunkHolder invokeGetChunkHolder(long pos);
+}
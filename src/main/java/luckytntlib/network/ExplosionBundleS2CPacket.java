@@ -0,0 +1,88 @@
+package luckytntlib.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import luckytntlib.LuckyTNTLib;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.biome.Biome;
+
+/**
+ * Bundles everything explosions have sent to a single player during a tick: the sounds that player can hear and the destroyed blocks of the sections that player tracks.
+ * @see luckytntlib.util.explosions.ExplosionNetworkAggregator
+ */
+public class ExplosionBundleS2CPacket implements LuckyTNTPacket {
+
+	public static Identifier NAME = new Identifier(LuckyTNTLib.MODID, "explosion_bundle_s2c");
+
+	public final List<Sound> sounds;
+	@Nullable public final ExplosionSectionDeltaS2CPacket deltas;
+
+	public ExplosionBundleS2CPacket(List<Sound> sounds, @Nullable ExplosionSectionDeltaS2CPacket deltas) {
+		this.sounds = sounds;
+		this.deltas = deltas;
+	}
+
+	public ExplosionBundleS2CPacket(PacketByteBuf buf, Registry<Biome> biomes) {
+		int count = buf.readVarInt();
+		sounds = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			sounds.add(new Sound(buf.readRegistryValue(Registries.SOUND_EVENT), buf.readEnumConstant(SoundCategory.class), buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readFloat(), buf.readFloat()));
+		}
+		deltas = buf.readBoolean() ? new ExplosionSectionDeltaS2CPacket(buf, biomes) : null;
+	}
+
+	@Override
+	public PacketByteBuf toByteBuf() {
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(sounds.size());
+		for(Sound sound : sounds) {
+			buf.writeRegistryValue(Registries.SOUND_EVENT, sound.sound);
+			buf.writeEnumConstant(sound.category);
+			buf.writeDouble(sound.x);
+			buf.writeDouble(sound.y);
+			buf.writeDouble(sound.z);
+			buf.writeFloat(sound.volume);
+			buf.writeFloat(sound.pitch);
+		}
+		buf.writeBoolean(deltas != null);
+		if(deltas != null) {
+			buf.writeBytes(deltas.toByteBuf());
+		}
+		return buf;
+	}
+
+	@Override
+	public Identifier getName() {
+		return NAME;
+	}
+
+	/**
+	 * A sound played at a position, which may stand for several sounds of the same kind that are too far away from the player to be told apart
+	 */
+	public static class Sound {
+
+		public final SoundEvent sound;
+		public final SoundCategory category;
+		public final double x, y, z;
+		public final float volume, pitch;
+
+		public Sound(SoundEvent sound, SoundCategory category, double x, double y, double z, float volume, float pitch) {
+			this.sound = sound;
+			this.category = category;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.volume = volume;
+			this.pitch = pitch;
+		}
+	}
+}
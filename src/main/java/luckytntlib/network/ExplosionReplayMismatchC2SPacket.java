@@ -0,0 +1,33 @@
+package luckytntlib.network;
+
+import luckytntlib.LuckyTNTLib;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+/**
+ * Tells the server that a client could not replay an explosion sent by an {@link ExplosionReplayS2CPacket}, 
+ * so that the server sends the destroyed blocks instead.
+ */
+public class ExplosionReplayMismatchC2SPacket implements LuckyTNTPacket {
+	
+	public static Identifier NAME = new Identifier(LuckyTNTLib.MODID, "explosion_replay_mismatch_c2s");
+	
+	public final int id;
+	
+	public ExplosionReplayMismatchC2SPacket(int id) {
+		this.id = id;
+	}
+
+	@Override
+	public PacketByteBuf toByteBuf() {
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(id);
+		return buf;
+	}
+
+	@Override
+	public Identifier getName() {
+		return NAME;
+	}
+}
@@ -0,0 +1,79 @@
+package luckytntlib.network;
+
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.util.explosions.ExplosionEngine;
+import luckytntlib.util.explosions.ExplosionReplay;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+/**
+ * Tells a client to compute the crater of an {@link luckytntlib.util.explosions.ImprovedExplosion} by itself instead of receiving every destroyed block.
+ * Besides the parameters of the explosion it carries a hash of the sections around the crater, 
+ * so that the client only replays the explosion if it computes a crater around the same blocks the server did.
+ * @see ExplosionReplay
+ */
+public class ExplosionReplayS2CPacket implements LuckyTNTPacket {
+	
+	public static Identifier NAME = new Identifier(LuckyTNTLib.MODID, "explosion_replay_s2c");
+	
+	public final int id;
+	public final double x, y, z;
+	public final int size;
+	public final float xzStrength, yStrength, resistanceImpact, randomVecLength;
+	public final boolean isStrongExplosion;
+	public final ExplosionEngine engine;
+	public final long seed;
+	public final boolean sphere;
+	public final double factor;
+	public final long hash;
+	
+	public ExplosionReplayS2CPacket(int id, double x, double y, double z, int size, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, ExplosionEngine engine, long seed, boolean sphere, double factor, long hash) {
+		this.id = id;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.size = size;
+		this.xzStrength = xzStrength;
+		this.yStrength = yStrength;
+		this.resistanceImpact = resistanceImpact;
+		this.randomVecLength = randomVecLength;
+		this.isStrongExplosion = isStrongExplosion;
+		this.engine = engine;
+		this.seed = seed;
+		this.sphere = sphere;
+		this.factor = factor;
+		this.hash = hash;
+	}
+	
+	public ExplosionReplayS2CPacket(PacketByteBuf buf) {
+		this(buf.readVarInt(), buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readVarInt(), buf.readFloat(), buf.readFloat(), buf.readFloat(), buf.readFloat(), buf.readBoolean(), buf.readEnumConstant(ExplosionEngine.class), 
+				buf.readLong(), buf.readBoolean(), buf.readDouble(), buf.readLong());
+	}
+
+	@Override
+	public PacketByteBuf toByteBuf() {
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(id);
+		buf.writeDouble(x);
+		buf.writeDouble(y);
+		buf.writeDouble(z);
+		buf.writeVarInt(size);
+		buf.writeFloat(xzStrength);
+		buf.writeFloat(yStrength);
+		buf.writeFloat(resistanceImpact);
+		buf.writeFloat(randomVecLength);
+		buf.writeBoolean(isStrongExplosion);
+		buf.writeEnumConstant(engine);
+		buf.writeLong(seed);
+		buf.writeBoolean(sphere);
+		buf.writeDouble(factor);
+		buf.writeLong(hash);
+		return buf;
+	}
+
+	@Override
+	public Identifier getName() {
+		return NAME;
+	}
+}
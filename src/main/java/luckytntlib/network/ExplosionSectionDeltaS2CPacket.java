@@ -0,0 +1,135 @@
+package luckytntlib.network;
+
+import org.jetbrains.annotations.Nullable;
+
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.util.explosions.ExplosionBlockSet;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.ChunkSection;
+
+/**
+ * Tells a client which blocks an explosion has replaced with air, section by section.
+ * <p>
+ * A section with few destroyed blocks is sent as a list of packed local positions (2 bytes per block), a section with more as its bitset (512 bytes).
+ * A section with at least {@link ExplosionSectionDeltaS2CPacket#FULL_SECTION_MIN_BLOCKS} destroyed blocks is sent as a whole
+ * if that is smaller than its bitset, which is usually the case once most of it is air.
+ */
+public class ExplosionSectionDeltaS2CPacket implements LuckyTNTPacket {
+
+	public static Identifier NAME = new Identifier(LuckyTNTLib.MODID, "explosion_section_delta_s2c");
+	public static final int FULL_SECTION_MIN_BLOCKS = 1024;
+	private static final int MAX_POSITIONS = 256;
+	private static final byte POSITIONS = 0, BITS = 1, FULL = 2;
+
+	public final long[] sectionKeys;
+	public final ExplosionBlockSet blocks;
+	@Nullable private final World level;
+	@Nullable public final ChunkSection[] sections;
+
+	/**
+	 * Creates the packet on the logical server side. Whole sections are taken from the level when the packet is written.
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 * @param sectionKeys  the sections of the destroyed blocks that are sent
+	 */
+	public ExplosionSectionDeltaS2CPacket(World level, ExplosionBlockSet blocks, long[] sectionKeys) {
+		this.level = level;
+		this.blocks = blocks;
+		this.sectionKeys = sectionKeys;
+		this.sections = null;
+	}
+
+	/**
+	 * Reads the packet on the logical client side. A section sent as a whole is read into a new {@link ChunkSection},
+	 * while the blocks of all other sections are read into {@link ExplosionSectionDeltaS2CPacket#blocks}.
+	 * @param buf  the {@link PacketByteBuf}
+	 * @param biomes  the biome registry needed to create new sections
+	 */
+	public ExplosionSectionDeltaS2CPacket(PacketByteBuf buf, Registry<Biome> biomes) {
+		level = null;
+		blocks = new ExplosionBlockSet();
+		sectionKeys = new long[buf.readVarInt()];
+		sections = new ChunkSection[sectionKeys.length];
+		for(int i = 0; i < sectionKeys.length; i++) {
+			long key = sectionKeys[i] = buf.readLong();
+			int baseX = ChunkSectionPos.unpackX(key) << 4;
+			int baseY = ChunkSectionPos.unpackY(key) << 4;
+			int baseZ = ChunkSectionPos.unpackZ(key) << 4;
+			byte mode = buf.readByte();
+			if(mode == FULL) {
+				sections[i] = new ChunkSection(biomes);
+				sections[i].readDataPacket(buf);
+			} else if(mode == BITS) {
+				for(int word = 0; word < 64; word++) {
+					long value = buf.readLong();
+					while(value != 0) {
+						int index = word << 6 | Long.numberOfTrailingZeros(value);
+						value &= value - 1;
+						blocks.add(baseX + (index & 15), baseY + (index >>> 8), baseZ + (index >>> 4 & 15));
+					}
+				}
+			} else {
+				int count = buf.readVarInt();
+				for(int j = 0; j < count; j++) {
+					int index = buf.readShort() & 4095;
+					blocks.add(baseX + (index & 15), baseY + (index >>> 8), baseZ + (index >>> 4 & 15));
+				}
+			}
+		}
+	}
+
+	@Override
+	public PacketByteBuf toByteBuf() {
+		PacketByteBuf buf = PacketByteBufs.create();
+		buf.writeVarInt(sectionKeys.length);
+		for(long key : sectionKeys) {
+			buf.writeLong(key);
+			long[] bits = blocks.getSectionBits(key);
+			int count = 0;
+			for(long value : bits) {
+				count += Long.bitCount(value);
+			}
+			ChunkSection section = count >= FULL_SECTION_MIN_BLOCKS ? getSection(key) : null;
+			if(section != null && section.getPacketSize() < bits.length * Long.BYTES) {
+				buf.writeByte(FULL);
+				section.toPacket(buf);
+			} else if(count > MAX_POSITIONS) {
+				buf.writeByte(BITS);
+				for(long value : bits) {
+					buf.writeLong(value);
+				}
+			} else {
+				buf.writeByte(POSITIONS);
+				buf.writeVarInt(count);
+				for(int word = 0; word < 64; word++) {
+					long value = bits[word];
+					while(value != 0) {
+						buf.writeShort(word << 6 | Long.numberOfTrailingZeros(value));
+						value &= value - 1;
+					}
+				}
+			}
+		}
+		return buf;
+	}
+
+	@Nullable
+	private ChunkSection getSection(long key) {
+		int index = level.sectionCoordToIndex(ChunkSectionPos.unpackY(key));
+		if(index < 0 || index >= level.countVerticalSections()) {
+			return null;
+		}
+		return level.getChunk(ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackZ(key)).getSection(index);
+	}
+
+	@Override
+	public Identifier getName() {
+		return NAME;
+	}
+}
@@ -1,15 +1,30 @@
 package luckytntlib.registry;
 
+import org.jetbrains.annotations.Nullable;
+
+import luckytntlib.LuckyTNTLib;
 import luckytntlib.config.LuckyTNTLibConfigValues;
 import luckytntlib.config.common.Config;
+import luckytntlib.network.ExplosionBundleS2CPacket;
+import luckytntlib.network.ExplosionReplayMismatchC2SPacket;
+import luckytntlib.network.ExplosionReplayS2CPacket;
+import luckytntlib.network.ExplosionSectionDeltaS2CPacket;
 import luckytntlib.network.UpdateConfigValuesPacket;
+import luckytntlib.util.explosions.ExplosionReplay;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking.PlayChannelHandler;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
 
 public class ClientNetworkRegistry {
 
@@ -24,8 +39,86 @@ public class ClientNetworkRegistry {
 			});
 		}
 	};
+	private static final PlayChannelHandler REPLAY_S2C = new PlayChannelHandler() {
+		
+		@Override
+		public void receive(MinecraftClient client, ClientPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
+			ExplosionReplayS2CPacket packet = new ExplosionReplayS2CPacket(buf);
+			
+			client.execute(() -> {
+				if(client.world == null || !ExplosionReplay.replay(client.world, packet)) {
+					LuckyTNTLib.RH.sendC2SPacket(new ExplosionReplayMismatchC2SPacket(packet.id));
+				}
+			});
+		}
+	};
+	private static final PlayChannelHandler SECTION_DELTA_S2C = new PlayChannelHandler() {
+		
+		@Override
+		public void receive(MinecraftClient client, ClientPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
+			ExplosionSectionDeltaS2CPacket packet = new ExplosionSectionDeltaS2CPacket(buf, handler.getRegistryManager().get(RegistryKeys.BIOME));
+			
+			client.execute(() -> {
+				applySectionDeltas(client.world, packet);
+			});
+		}
+	};
+	private static final PlayChannelHandler BUNDLE_S2C = new PlayChannelHandler() {
+		
+		@Override
+		public void receive(MinecraftClient client, ClientPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
+			ExplosionBundleS2CPacket packet = new ExplosionBundleS2CPacket(buf, handler.getRegistryManager().get(RegistryKeys.BIOME));
+			
+			client.execute(() -> {
+				if(client.world == null) {
+					return;
+				}
+				for(ExplosionBundleS2CPacket.Sound sound : packet.sounds) {
+					client.world.playSound(sound.x, sound.y, sound.z, sound.sound, sound.category, sound.volume, sound.pitch, false);
+				}
+				if(packet.deltas != null) {
+					applySectionDeltas(client.world, packet.deltas);
+				}
+			});
+		}
+	};
+	
+	/**
+	 * Replaces the destroyed blocks of an {@link ExplosionSectionDeltaS2CPacket} with air, or swaps in the sections that have been sent as a whole
+	 * @param world  the level of the client
+	 * @param packet  the received packet
+	 */
+	private static void applySectionDeltas(@Nullable ClientWorld world, ExplosionSectionDeltaS2CPacket packet) {
+		if(world == null) {
+			return;
+		}
+		for(int i = 0; i < packet.sectionKeys.length; i++) {
+			long key = packet.sectionKeys[i];
+			int sectionX = ChunkSectionPos.unpackX(key);
+			int sectionY = ChunkSectionPos.unpackY(key);
+			int sectionZ = ChunkSectionPos.unpackZ(key);
+			int index = world.sectionCoordToIndex(sectionY);
+			if(!world.getChunkManager().isChunkLoaded(sectionX, sectionZ) || index < 0 || index >= world.countVerticalSections()) {
+				continue;
+			}
+			ChunkSection section = packet.sections[i];
+			if(section != null) {
+				ChunkSection[] sections = world.getChunk(sectionX, sectionZ).getSectionArray();
+				if(sections[index].isEmpty() != section.isEmpty()) {
+					world.getChunkManager().getLightingProvider().setSectionStatus(ChunkSectionPos.from(sectionX, sectionY, sectionZ), section.isEmpty());
+				}
+				sections[index] = section;
+				world.scheduleBlockRenders(sectionX, sectionY, sectionZ);
+			} else {
+				packet.blocks.forEachInSection(key, (x, y, z) -> world.setBlockState(new BlockPos(x, y, z), Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL | Block.FORCE_STATE));
+			}
+		}
+	}
 	
 	public static void init() {
 		ClientPlayNetworking.registerGlobalReceiver(UpdateConfigValuesPacket.NAME, UPDATE_S2C);
+		ClientPlayNetworking.registerGlobalReceiver(ExplosionReplayS2CPacket.NAME, REPLAY_S2C);
+		ClientPlayNetworking.registerGlobalReceiver(ExplosionSectionDeltaS2CPacket.NAME, SECTION_DELTA_S2C);
+		ClientPlayNetworking.registerGlobalReceiver(ExplosionBundleS2CPacket.NAME, BUNDLE_S2C);
 	}
 }
@@ -2,6 +2,7 @@ package luckytntlib.registry;
 
 import luckytntlib.LuckyTNTLib;
 import luckytntlib.network.ClientReadyC2SPacket;
+import luckytntlib.util.explosions.BlastResistanceTable;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents.Join;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
@@ -14,6 +15,7 @@ public class EventRegistry {
 		
 		@Override
 		public void onPlayReady(ClientPlayNetworkHandler handler, PacketSender sender, MinecraftClient client) {
+			BlastResistanceTable.invalidate();
 			LuckyTNTLib.RH.sendC2SPacket(new ClientReadyC2SPacket());
 		}
 	};
@@ -4,7 +4,9 @@ import luckytntlib.LuckyTNTLib;
 import luckytntlib.config.LuckyTNTLibConfigValues;
 import luckytntlib.config.common.Config;
 import luckytntlib.network.ClientReadyC2SPacket;
+import luckytntlib.network.ExplosionReplayMismatchC2SPacket;
 import luckytntlib.network.UpdateConfigValuesPacket;
+import luckytntlib.util.explosions.ExplosionReplay;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
@@ -42,6 +44,17 @@ public class NetworkRegistry {
 			}
 		}
 	};
+	private static final PlayChannelHandler REPLAY_MISMATCH_C2S = new PlayChannelHandler() {
+		
+		@Override
+		public void receive(MinecraftServer server, ServerPlayerEntity player, ServerPlayNetworkHandler handler, PacketByteBuf buf, PacketSender responseSender) {
+			int id = buf.readVarInt();
+			
+			server.execute(() -> {
+				ExplosionReplay.resend(player, id);
+			});
+		}
+	};
 
 	public static void init() {
 		if(FabricLoader.getInstance().getEnvironmentType() == EnvType.CLIENT) {
@@ -50,5 +63,6 @@ public class NetworkRegistry {
 		
 		ServerPlayNetworking.registerGlobalReceiver(UpdateConfigValuesPacket.NAME, UPDATE_C2S);
 		ServerPlayNetworking.registerGlobalReceiver(ClientReadyC2SPacket.NAME, READY_C2S);
+		ServerPlayNetworking.registerGlobalReceiver(ExplosionReplayMismatchC2SPacket.NAME, REPLAY_MISMATCH_C2S);
 	}
 }
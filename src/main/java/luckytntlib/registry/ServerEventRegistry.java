@@ -0,0 +1,74 @@
+package luckytntlib.registry;
+
+import luckytntlib.util.explosions.BlastResistanceTable;
+import luckytntlib.util.explosions.ExplosionCoalescer;
+import luckytntlib.util.explosions.ExplosionJobManager;
+import luckytntlib.util.explosions.ExplosionNetworkAggregator;
+import luckytntlib.util.explosions.ExplosionPrecomputation;
+import luckytntlib.util.explosions.ExplosionReplay;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents.Unload;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.EndDataPackReload;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.ServerStarting;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents.EndWorldTick;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.resource.LifecycledResourceManager;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+public class ServerEventRegistry {
+	
+	private static final ServerStarting SERVER_STARTING = new ServerStarting() {
+		
+		@Override
+		public void onServerStarting(MinecraftServer server) {
+			BlastResistanceTable.invalidate();
+		}
+	};
+	
+	private static final EndDataPackReload DATA_PACK_RELOAD = new EndDataPackReload() {
+		
+		@Override
+		public void endDataPackReload(MinecraftServer server, LifecycledResourceManager resourceManager, boolean success) {
+			BlastResistanceTable.invalidate();
+		}
+	};
+	
+	private static final EndWorldTick END_WORLD_TICK = new EndWorldTick() {
+		
+		@Override
+		public void onEndTick(ServerWorld level) {
+			ExplosionCoalescer.get(level).tick(level);
+			ExplosionJobManager.get(level).tick(level);
+			ExplosionNetworkAggregator.get(level).flush(level);
+			ExplosionReplay.get(level).tick(level);
+		}
+	};
+	
+	private static final Unload ENTITY_UNLOAD = new Unload() {
+		
+		@Override
+		public void onUnload(Entity entity, ServerWorld level) {
+			ExplosionPrecomputation.discard(entity);
+		}
+	};
+	
+	private static final ServerWorldEvents.Unload WORLD_UNLOAD = new ServerWorldEvents.Unload() {
+		
+		@Override
+		public void onWorldUnload(MinecraftServer server, ServerWorld level) {
+			ExplosionReplay.unload(level);
+		}
+	};
+	
+	public static void init() {
+		ServerLifecycleEvents.SERVER_STARTING.register(SERVER_STARTING);
+		ServerLifecycleEvents.END_DATA_PACK_RELOAD.register(DATA_PACK_RELOAD);
+		ServerTickEvents.END_WORLD_TICK.register(END_WORLD_TICK);
+		ServerEntityEvents.ENTITY_UNLOAD.register(ENTITY_UNLOAD);
+		ServerWorldEvents.UNLOAD.register(WORLD_UNLOAD);
+	}
+}
@@ -0,0 +1,35 @@
+package luckytntlib.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import luckytntlib.mixin.ChunkSectionMixin;
+import luckytntlib.util.explosions.ExplosionSectionSummary;
+
+/**
+ * LuckyTNTChunkSectionExtension is used in {@link ChunkSectionMixin} to keep track of changes to a chunk section,
+ * so that explosions calculated ahead of time can tell whether the blocks they were calculated with are still the same
+ * and explosions can look at the section as a whole before looking at its blocks or compare it to the same section on the other logical side
+ */
+public interface LuckyTNTChunkSectionExtension {
+	
+	/**
+	 * Gets the amount of times a block state of this section has been set
+	 * @return the modification count
+	 */
+	int getModificationCount();
+	
+	/**
+	 * Gets the {@link ExplosionSectionSummary} of this section, which is cached until a block state of this section is set
+	 * @param resistances  the resistance table the summary is computed for
+	 * @return the {@link ExplosionSectionSummary} or null if the section can not be summarized
+	 */
+	@Nullable
+	ExplosionSectionSummary getExplosionSummary(float[] resistances);
+	
+	/**
+	 * Gets a hash of the block states of this section, which is cached until a block state of this section is set.
+	 * The hash is taken from the palette and the packed storage the section is synchronized with, so equal sections on both logical sides have the same hash.
+	 * @return the hash
+	 */
+	int getExplosionHash();
+}
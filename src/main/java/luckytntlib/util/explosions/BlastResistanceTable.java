@@ -0,0 +1,125 @@
+package luckytntlib.util.explosions;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.EmptyBlockView;
+import net.minecraft.world.explosion.EntityExplosionBehavior;
+import net.minecraft.world.explosion.Explosion;
+import net.minecraft.world.explosion.ExplosionBehavior;
+
+/**
+ * The BlastResistanceTable stores the blast resistance of every {@link BlockState} in a dense array indexed by the raw id of the state.
+ * This saves an {@link ImprovedExplosion} from boxing a {@link Float} and calling the {@link ExplosionBehavior} for every block it evaluates.
+ * <p>
+ * A table is built once per {@link ExplosionBehavior} class and is only used for behaviors whose resistance does not depend on the position or the exploding entity.
+ * All tables are invalidated whenever datapacks or registries are reloaded.
+ */
+public class BlastResistanceTable {
+
+	private static final Map<Class<?>, float[]> TABLES = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Boolean> DEFAULT_RESISTANCE_ENTITIES = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Boolean> DEFAULT_DESTRUCTION_ENTITIES = new ConcurrentHashMap<>();
+
+	private BlastResistanceTable() {
+	}
+
+	/**
+	 * Gets the table of an {@link ExplosionBehavior} if it can be used for it.
+	 * A value in the table is the resistance of the state already increased by 0.3 and multiplied by 0.3, 
+	 * or 0 if the behavior would give no resistance at all.
+	 * @param explosion  the explosion the behavior belongs to
+	 * @param behavior  the {@link ExplosionBehavior} of the explosion
+	 * @return the table indexed by {@link Block#getRawIdFromState(BlockState)} or null if the behavior has to be called for every block
+	 */
+	@Nullable
+	public static float[] get(Explosion explosion, ExplosionBehavior behavior) {
+		if(!usesDefaultResistance(behavior, explosion.getEntity())) {
+			return null;
+		}
+		float[] table = TABLES.get(behavior.getClass());
+		if(table == null || table.length != Block.STATE_IDS.size()) {
+			table = build(explosion, behavior);
+			TABLES.put(behavior.getClass(), table);
+		}
+		return table;
+	}
+
+	/**
+	 * Removes all tables, so that they are built again the next time they are needed
+	 */
+	public static void invalidate() {
+		TABLES.clear();
+	}
+
+	/**
+	 * Checks whether the resistance given by an {@link ExplosionBehavior} only depends on the {@link BlockState}
+	 * @param behavior  the {@link ExplosionBehavior}
+	 * @param entity  the entity causing the explosion, may be null
+	 * @return true if the behavior is a vanilla behavior and the entity does not change the resistance of blocks
+	 */
+	public static boolean usesDefaultResistance(ExplosionBehavior behavior, @Nullable Entity entity) {
+		if(behavior.getClass() == ExplosionBehavior.class) {
+			return true;
+		}
+		if(behavior.getClass() == EntityExplosionBehavior.class && entity != null) {
+			return DEFAULT_RESISTANCE_ENTITIES.computeIfAbsent(entity.getClass(), clazz -> !overrides(clazz, float.class, Explosion.class, BlockView.class, BlockPos.class, BlockState.class, FluidState.class, float.class));
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether an {@link ExplosionBehavior} allows the destruction of every block
+	 * @param behavior  the {@link ExplosionBehavior}
+	 * @param entity  the entity causing the explosion, may be null
+	 * @return true if the behavior is a vanilla behavior and the entity does not prevent the destruction of any block
+	 */
+	public static boolean usesDefaultDestruction(ExplosionBehavior behavior, @Nullable Entity entity) {
+		if(behavior.getClass() == ExplosionBehavior.class) {
+			return true;
+		}
+		if(behavior.getClass() == EntityExplosionBehavior.class && entity != null) {
+			return DEFAULT_DESTRUCTION_ENTITIES.computeIfAbsent(entity.getClass(), clazz -> !overrides(clazz, boolean.class, Explosion.class, BlockView.class, BlockPos.class, BlockState.class, float.class));
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks whether a subclass of {@link Entity} overrides a method of {@link Entity}.
+	 * Methods are identified by their signature, as their names differ between environments.
+	 * @param clazz  the subclass of {@link Entity}
+	 * @param returnType  the return type of the method
+	 * @param parameterTypes  the parameter types of the method
+	 * @return true if any class between clazz and {@link Entity} declares the method
+	 */
+	static boolean overrides(Class<?> clazz, Class<?> returnType, Class<?>... parameterTypes) {
+		for(Class<?> current = clazz; current != null && current != Entity.class; current = current.getSuperclass()) {
+			for(Method method : current.getDeclaredMethods()) {
+				if(method.getReturnType() == returnType && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static float[] build(Explosion explosion, ExplosionBehavior behavior) {
+		float[] table = new float[Block.STATE_IDS.size()];
+		for(BlockState state : Block.STATE_IDS) {
+			Optional<Float> resistance = behavior.getBlastResistance(explosion, EmptyBlockView.INSTANCE, BlockPos.ORIGIN, state, state.getFluidState());
+			table[Block.getRawIdFromState(state)] = resistance.isPresent() ? (resistance.get() + 0.3f) * 0.3f : 0f;
+		}
+		return table;
+	}
+}
@@ -0,0 +1,123 @@
+package luckytntlib.util.explosions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import luckytntlib.util.LuckyTNTChunkSectionExtension;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * ExplosionBlockAccess caches the {@link ChunkSection}s resolved by an {@link ImprovedExplosion}, 
+ * so that block states can be read straight from the section instead of looking up the chunk for every sample.
+ * <p>
+ * The resolved sections are shared by all explosions of a {@link World} that happen within the same tick.
+ * They are cached apart from the {@link World}, so that the cache does not keep the {@link World} loaded once it is unloaded.
+ * Fluid states are not cached separately, they are derived from the block state like the {@link World} does.
+ */
+public class ExplosionBlockAccess implements ExplosionBlockReader {
+	
+	private static final Map<World, SectionCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+	private static final BlockState VOID_AIR = Blocks.VOID_AIR.getDefaultState();
+	
+	private final World level;
+	private final Long2ObjectOpenHashMap<ChunkSection> sections;
+	private long lastKey;
+	@Nullable private ChunkSection lastSection;
+	
+	private ExplosionBlockAccess(World level, Long2ObjectOpenHashMap<ChunkSection> sections) {
+		this.level = level;
+		this.sections = sections;
+	}
+	
+	/**
+	 * Gets an ExplosionBlockAccess for a {@link World} that shares the sections resolved during the current tick, which are cleared once the tick has changed.
+	 * @implNote must only be used on the thread that ticks the given level
+	 * @param level  the level
+	 * @return the ExplosionBlockAccess of the current tick
+	 */
+	public static ExplosionBlockAccess get(World level) {
+		long time = level.getTime();
+		SectionCache cache = CACHES.get(level);
+		if(cache == null || cache.time != time) {
+			cache = new SectionCache(time);
+			CACHES.put(level, cache);
+		}
+		return new ExplosionBlockAccess(level, cache.sections);
+	}
+	
+	/**
+	 * Gets the {@link ChunkSection} at the given section coordinates, loading the chunk if necessary.
+	 * @param sectionX  the x section coordinate
+	 * @param sectionY  the y section coordinate
+	 * @param sectionZ  the z section coordinate
+	 * @return the {@link ChunkSection} or null if the section is outside of the height limit
+	 */
+	@Nullable
+	public ChunkSection getSection(int sectionX, int sectionY, int sectionZ) {
+		long key = ChunkSectionPos.asLong(sectionX, sectionY, sectionZ);
+		if(lastSection != null && key == lastKey) {
+			return lastSection;
+		}
+		ChunkSection section = sections.get(key);
+		if(section == null) {
+			int index = level.sectionCoordToIndex(sectionY);
+			if(index < 0 || index >= level.countVerticalSections()) {
+				return null;
+			}
+			section = level.getChunk(sectionX, sectionZ).getSectionArray()[index];
+			sections.put(key, section);
+		}
+		lastKey = key;
+		lastSection = section;
+		return section;
+	}
+	
+	@Override
+	@Nullable
+	public PalettedContainer<BlockState> getBlockStates(int sectionX, int sectionY, int sectionZ) {
+		ChunkSection section = getSection(sectionX, sectionY, sectionZ);
+		return section == null ? null : section.getBlockStateContainer();
+	}
+	
+	@Override
+	@Nullable
+	public ExplosionSectionSummary getSummary(int sectionX, int sectionY, int sectionZ, float[] resistances) {
+		ChunkSection section = getSection(sectionX, sectionY, sectionZ);
+		return section == null ? ExplosionSectionSummary.of(null, resistances) : ((LuckyTNTChunkSectionExtension)section).getExplosionSummary(resistances);
+	}
+	
+	/**
+	 * Gets the {@link BlockState} at the given position straight from its {@link ChunkSection}
+	 * @param x  the x position
+	 * @param y  the y position
+	 * @param z  the z position
+	 * @return the {@link BlockState} or void air if the position is outside of the height limit
+	 */
+	@Override
+	public BlockState getBlockState(int x, int y, int z) {
+		ChunkSection section = getSection(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(y), ChunkSectionPos.getSectionCoord(z));
+		return section == null ? VOID_AIR : section.getBlockState(x & 15, y & 15, z & 15);
+	}
+	
+	/**
+	 * The sections resolved during a tick, which must not reference the {@link World} they belong to
+	 */
+	private static class SectionCache {
+		
+		private final long time;
+		private final Long2ObjectOpenHashMap<ChunkSection> sections = new Long2ObjectOpenHashMap<>();
+		
+		private SectionCache(long time) {
+			this.time = time;
+		}
+	}
+}
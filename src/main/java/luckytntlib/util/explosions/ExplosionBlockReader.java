@@ -0,0 +1,42 @@
+package luckytntlib.util.explosions;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * An ExplosionBlockReader provides the block states an {@link ImprovedExplosion} samples while shooting its vectors.
+ */
+public interface ExplosionBlockReader {
+	
+	/**
+	 * Gets the {@link BlockState} at the given position
+	 * @param x  the x position
+	 * @param y  the y position
+	 * @param z  the z position
+	 * @return the {@link BlockState} or void air if the position is outside of the height limit
+	 */
+	public BlockState getBlockState(int x, int y, int z);
+	
+	/**
+	 * Gets the block states of a whole chunk section, which allows to check the section as a whole through its palette
+	 * @param sectionX  the x section coordinate
+	 * @param sectionY  the y section coordinate
+	 * @param sectionZ  the z section coordinate
+	 * @return the {@link PalettedContainer} of the section or null if the section is outside of the height limit
+	 */
+	@Nullable
+	public PalettedContainer<BlockState> getBlockStates(int sectionX, int sectionY, int sectionZ);
+	
+	/**
+	 * Gets the {@link ExplosionSectionSummary} of a whole chunk section
+	 * @param sectionX  the x section coordinate
+	 * @param sectionY  the y section coordinate
+	 * @param sectionZ  the z section coordinate
+	 * @param resistances  the {@link BlastResistanceTable} the summary is computed for
+	 * @return the {@link ExplosionSectionSummary} or null if the section can not be summarized
+	 */
+	@Nullable
+	public ExplosionSectionSummary getSummary(int sectionX, int sectionY, int sectionZ, float[] resistances);
+}
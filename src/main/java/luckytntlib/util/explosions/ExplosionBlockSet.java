@@ -0,0 +1,265 @@
+package luckytntlib.util.explosions;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * ExplosionBlockSet stores the blocks affected by an {@link ImprovedExplosion}.
+ * Every touched 16x16x16 chunk section gets a bitset of 4096 bits (512 bytes), keyed by the section coordinates.
+ * <p>
+ * Blocks are iterated section by section and within a section in the same order the section stores its blocks,
+ * which makes the iteration cache-friendly and gives a natural unit for batching block and network updates.
+ */
+public class ExplosionBlockSet {
+	
+	private final Long2ObjectOpenHashMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+	private int size = 0;
+	private long lastKey;
+	@Nullable private long[] lastBits;
+	
+	/**
+	 * Adds a block to this set
+	 * @param x  the x position
+	 * @param y  the y position
+	 * @param z  the z position
+	 * @return true if the block was not contained yet
+	 */
+	public boolean add(int x, int y, int z) {
+		long[] bits = getBits(ChunkSectionPos.asLong(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(y), ChunkSectionPos.getSectionCoord(z)), true);
+		int index = index(x, y, z);
+		long mask = 1L << index;
+		if((bits[index >>> 6] & mask) != 0) {
+			return false;
+		}
+		bits[index >>> 6] |= mask;
+		size++;
+		return true;
+	}
+	
+	/**
+	 * Checks whether a block is contained in this set
+	 * @param x  the x position
+	 * @param y  the y position
+	 * @param z  the z position
+	 * @return true if the block is contained
+	 */
+	public boolean contains(int x, int y, int z) {
+		long[] bits = getBits(ChunkSectionPos.asLong(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(y), ChunkSectionPos.getSectionCoord(z)), false);
+		int index = index(x, y, z);
+		return bits != null && (bits[index >>> 6] & 1L << index) != 0;
+	}
+	
+	/**
+	 * Adds all blocks of another ExplosionBlockSet to this set
+	 * @param other  the other set
+	 */
+	public void addAll(ExplosionBlockSet other) {
+		for(Long2ObjectMap.Entry<long[]> entry : other.sections.long2ObjectEntrySet()) {
+			long[] bits = getBits(entry.getLongKey(), true);
+			long[] otherBits = entry.getValue();
+			for(int word = 0; word < 64; word++) {
+				size += Long.bitCount(otherBits[word] & ~bits[word]);
+				bits[word] |= otherBits[word];
+			}
+		}
+	}
+	
+	/**
+	 * Creates a copy of this set that can be modified independently
+	 * @return the new ExplosionBlockSet
+	 */
+	public ExplosionBlockSet copy() {
+		ExplosionBlockSet copy = new ExplosionBlockSet();
+		copy.addAll(this);
+		return copy;
+	}
+	
+	/**
+	 * Removes 64 consecutive blocks of a section, removing the section as well once it is empty
+	 * @param sectionKey  the section key as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 * @param word  the index of the long within the bitset of the section
+	 */
+	void clearWord(long sectionKey, int word) {
+		long[] bits = sections.get(sectionKey);
+		if(bits == null) {
+			return;
+		}
+		size -= Long.bitCount(bits[word]);
+		bits[word] = 0;
+		for(long value : bits) {
+			if(value != 0) {
+				return;
+			}
+		}
+		sections.remove(sectionKey);
+		lastBits = null;
+	}
+	
+	/**
+	 * Writes this set to a {@link NbtList} with one {@link NbtCompound} per section
+	 * @return the {@link NbtList}
+	 */
+	public NbtList toNbt() {
+		NbtList list = new NbtList();
+		for(long key : getSectionKeys()) {
+			NbtCompound section = new NbtCompound();
+			section.putLong("Section", key);
+			section.putLongArray("Blocks", sections.get(key));
+			list.add(section);
+		}
+		return list;
+	}
+	
+	/**
+	 * Reads a set written by {@link ExplosionBlockSet#toNbt()}
+	 * @param list  the {@link NbtList}
+	 * @return the new ExplosionBlockSet
+	 */
+	public static ExplosionBlockSet fromNbt(NbtList list) {
+		ExplosionBlockSet blocks = new ExplosionBlockSet();
+		for(int i = 0; i < list.size(); i++) {
+			NbtCompound section = list.getCompound(i);
+			long[] bits = section.getLongArray("Blocks");
+			if(bits.length != 64) {
+				continue;
+			}
+			long[] copy = bits.clone();
+			for(long value : copy) {
+				blocks.size += Long.bitCount(value);
+			}
+			blocks.sections.put(section.getLong("Section"), copy);
+		}
+		return blocks;
+	}
+	
+	/**
+	 * Removes all blocks from this set
+	 */
+	public void clear() {
+		sections.clear();
+		lastBits = null;
+		size = 0;
+	}
+	
+	/**
+	 * @return the amount of blocks in this set
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return true if this set contains no blocks
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * @return the amount of chunk sections touched by this set
+	 */
+	public int sectionCount() {
+		return sections.size();
+	}
+	
+	/**
+	 * Gets the keys of all touched chunk sections, sorted so that the sections of a chunk follow each other.
+	 * @return the section keys as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 */
+	public long[] getSectionKeys() {
+		long[] keys = sections.keySet().toLongArray();
+		Arrays.sort(keys);
+		return keys;
+	}
+	
+	/**
+	 * Gets the bitset of a chunk section. Bit <code>y << 8 | z << 4 | x</code> of the 64 longs represents the block at the local position x, y, z.
+	 * @param sectionKey  the section key as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 * @return the bitset of the section or null if no block of the section is contained. Must not be modified
+	 */
+	@Nullable
+	public long[] getSectionBits(long sectionKey) {
+		return sections.get(sectionKey);
+	}
+	
+	/**
+	 * Passes every block of this set to a {@link PositionConsumer}, section by section in memory order
+	 * @param consumer  the {@link PositionConsumer}
+	 */
+	public void forEach(PositionConsumer consumer) {
+		for(long key : getSectionKeys()) {
+			forEachInSection(key, consumer);
+		}
+	}
+	
+	/**
+	 * Passes every block of this set to a {@link BlockPosConsumer} as an immutable {@link BlockPos}, section by section in memory order
+	 * @param consumer  the {@link BlockPosConsumer}
+	 */
+	public void forEachBlockPos(BlockPosConsumer consumer) {
+		forEach((x, y, z) -> consumer.accept(new BlockPos(x, y, z)));
+	}
+	
+	/**
+	 * Passes every block of a single chunk section to a {@link PositionConsumer} in memory order
+	 * @param sectionKey  the section key as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 * @param consumer  the {@link PositionConsumer}
+	 */
+	public void forEachInSection(long sectionKey, PositionConsumer consumer) {
+		long[] bits = sections.get(sectionKey);
+		if(bits == null) {
+			return;
+		}
+		int baseX = ChunkSectionPos.unpackX(sectionKey) << 4;
+		int baseY = ChunkSectionPos.unpackY(sectionKey) << 4;
+		int baseZ = ChunkSectionPos.unpackZ(sectionKey) << 4;
+		for(int word = 0; word < 64; word++) {
+			long value = bits[word];
+			while(value != 0) {
+				int index = word << 6 | Long.numberOfTrailingZeros(value);
+				consumer.accept(baseX + (index & 15), baseY + (index >>> 8), baseZ + (index >>> 4 & 15));
+				value &= value - 1;
+			}
+		}
+	}
+	
+	@Nullable
+	private long[] getBits(long key, boolean create) {
+		if(lastBits != null && key == lastKey) {
+			return lastBits;
+		}
+		long[] bits = sections.get(key);
+		if(bits == null) {
+			if(!create) {
+				return null;
+			}
+			bits = new long[64];
+			sections.put(key, bits);
+		}
+		lastKey = key;
+		lastBits = bits;
+		return bits;
+	}
+	
+	private static int index(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+	}
+	
+	@FunctionalInterface
+	public interface PositionConsumer {
+		public void accept(int x, int y, int z);
+	}
+	
+	@FunctionalInterface
+	public interface BlockPosConsumer {
+		public void accept(BlockPos pos);
+	}
+}
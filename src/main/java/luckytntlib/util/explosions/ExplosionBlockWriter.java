@@ -0,0 +1,222 @@
+package luckytntlib.util.explosions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.explosion.Explosion;
+
+/**
+ * ExplosionBlockWriter replaces the blocks of an {@link ExplosionBlockSet} with air by writing straight into their {@link ChunkSection}s.
+ * <p>
+ * Setting the blocks one by one through the level makes every block notify its neighbors, recalculate the paths of all mobs 
+ * and update everything else that is made redundant by the next block right away. 
+ * Instead, only what has to be done per block (heightmaps, sky light sources and points of interest) is done while writing,
+ * while light, neighbors on the border of the crater, block entities and mob paths are updated once in {@link ExplosionBlockWriter#finish()}.
+ * <p>
+ * Removing blocks only ever lets more light through, unless a removed block emits light itself.
+ * So light is only checked at the surface of the crater, from where it spreads into the crater on its own, and where a block emitting light has been removed.
+ * The destroyed blocks are handed to the {@link ExplosionNetworkAggregator} in {@link ExplosionBlockWriter#finish()} as well, which sends them to the clients section by section.
+ */
+class ExplosionBlockWriter {
+	
+	private static final BlockState AIR = Blocks.AIR.getDefaultState();
+	private static final Heightmap.Type[] HEIGHTMAPS = {Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE};
+	
+	private final ServerWorld level;
+	private final Explosion explosion;
+	private final ExplosionBlockSet blocks;
+	private final LightingProvider lighting;
+	private final boolean synchronize;
+	private final ExplosionBlockSet changed = new ExplosionBlockSet();
+	private final LongArrayList blockEntities = new LongArrayList();
+	private final LongArrayList borders = new LongArrayList();
+	private final List<BlockState> borderStates = new ArrayList<>();
+	private final LongArrayList lightChecks = new LongArrayList();
+	private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+	private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+	private long lastChunk;
+	@Nullable private WorldChunk chunk;
+	
+	/**
+	 * @param level  the level
+	 * @param explosion  the explosion destroying the blocks
+	 * @param blocks  the blocks of the explosion, which are used to tell which neighbors are on the border of the crater
+	 */
+	ExplosionBlockWriter(ServerWorld level, Explosion explosion, ExplosionBlockSet blocks) {
+		this(level, explosion, blocks, true);
+	}
+	
+	/**
+	 * @param level  the level
+	 * @param explosion  the explosion destroying the blocks
+	 * @param blocks  the blocks of the explosion, which are used to tell which neighbors are on the border of the crater
+	 * @param synchronize  whether or not every destroyed block is sent to the clients. Should only be false if the clients learn about the blocks in another way
+	 */
+	ExplosionBlockWriter(ServerWorld level, Explosion explosion, ExplosionBlockSet blocks, boolean synchronize) {
+		this.level = level;
+		this.explosion = explosion;
+		this.blocks = blocks;
+		this.synchronize = synchronize;
+		lighting = level.getChunkManager().getLightingProvider();
+	}
+	
+	/**
+	 * Destroys every block of the set given to this writer, section by section
+	 */
+	void removeAll() {
+		for(long key : blocks.getSectionKeys()) {
+			long[] bits = blocks.getSectionBits(key);
+			for(int word = 0; word < 64; word++) {
+				if(bits[word] != 0) {
+					removeWord(key, word, bits[word]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Destroys up to 64 consecutive blocks of a section
+	 * @param sectionKey  the section key as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 * @param word  the index of the long within the bitset of the section
+	 * @param value  the bits of the blocks that are destroyed
+	 */
+	void removeWord(long sectionKey, int word, long value) {
+		int sectionX = ChunkSectionPos.unpackX(sectionKey);
+		int sectionY = ChunkSectionPos.unpackY(sectionKey);
+		int sectionZ = ChunkSectionPos.unpackZ(sectionKey);
+		int index = level.sectionCoordToIndex(sectionY);
+		if(index < 0 || index >= level.countVerticalSections()) {
+			return;
+		}
+		long chunkKey = ChunkSectionPos.asLong(sectionX, 0, sectionZ);
+		if(chunk == null || chunkKey != lastChunk) {
+			chunk = level.getChunk(sectionX, sectionZ);
+			lastChunk = chunkKey;
+		}
+		ChunkSection section = chunk.getSection(index);
+		boolean wasEmpty = section.isEmpty();
+		boolean modified = false;
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		while(value != 0) {
+			int bit = word << 6 | Long.numberOfTrailingZeros(value);
+			value &= value - 1;
+			int localX = bit & 15;
+			int localY = bit >>> 8;
+			int localZ = bit >>> 4 & 15;
+			pos.set((sectionX << 4) + localX, (sectionY << 4) + localY, (sectionZ << 4) + localZ);
+			BlockState state = section.getBlockState(localX, localY, localZ);
+			if(state.isAir()) {
+				continue;
+			}
+			BlockPos immutable = pos.toImmutable();
+			state.getBlock().onDestroyedByExplosion(level, immutable, explosion);
+			state = section.getBlockState(localX, localY, localZ);
+			if(state.isAir()) {
+				continue;
+			}
+			if(state.hasBlockEntity()) {
+				blockEntities.add(immutable.asLong());
+				continue;
+			}
+			section.setBlockState(localX, localY, localZ, AIR);
+			modified = true;
+			for(Heightmap.Type type : HEIGHTMAPS) {
+				chunk.getHeightmap(type).trackUpdate(localX, pos.getY(), localZ, AIR);
+			}
+			state.onStateReplaced(level, immutable, AIR, false);
+			level.onBlockChanged(immutable, state, AIR);
+			boolean border = isBorder(pos);
+			boolean needsLightUpdate = LightingProvider.needsLightUpdate(chunk, immutable, state, AIR);
+			if(needsLightUpdate) {
+				chunk.getChunkSkyLight().isSkyLightAccessible(chunk, localX, pos.getY(), localZ);
+			}
+			if(border || (needsLightUpdate && state.getLuminance() > 0)) {
+				lightChecks.add(immutable.asLong());
+			}
+			if(synchronize) {
+				changed.add(pos.getX(), pos.getY(), pos.getZ());
+			}
+			if(border || state.hasComparatorOutput()) {
+				borders.add(immutable.asLong());
+				borderStates.add(state);
+			}
+			minX = Math.min(minX, pos.getX());
+			minY = Math.min(minY, pos.getY());
+			minZ = Math.min(minZ, pos.getZ());
+			maxX = Math.max(maxX, pos.getX());
+			maxY = Math.max(maxY, pos.getY());
+			maxZ = Math.max(maxZ, pos.getZ());
+		}
+		if(modified) {
+			chunk.setNeedsSaving(true);
+			if(wasEmpty != section.isEmpty()) {
+				lighting.setSectionStatus(ChunkSectionPos.from(sectionX, sectionY, sectionZ), section.isEmpty());
+			}
+		}
+	}
+	
+	/**
+	 * Sends the destroyed blocks to the clients, checks the light at the surface of the crater, updates the neighbors on the border of the crater, 
+	 * removes blocks with block entities the usual way and lets mobs around the crater recalculate their paths.
+	 */
+	void finish() {
+		if(!changed.isEmpty()) {
+			ExplosionNetworkAggregator.get(level).addBlocks(changed);
+			changed.clear();
+		}
+		for(int i = 0; i < lightChecks.size(); i++) {
+			lighting.checkBlock(BlockPos.fromLong(lightChecks.getLong(i)));
+		}
+		lightChecks.clear();
+		for(int i = 0; i < borders.size(); i++) {
+			BlockPos pos = BlockPos.fromLong(borders.getLong(i));
+			BlockState state = borderStates.get(i);
+			for(Direction direction : Direction.values()) {
+				BlockPos neighbor = pos.offset(direction);
+				if(!blocks.contains(neighbor.getX(), neighbor.getY(), neighbor.getZ())) {
+					level.replaceWithStateForNeighborUpdate(direction.getOpposite(), AIR, neighbor, pos, Block.NOTIFY_ALL, 511);
+					level.updateNeighbor(neighbor, state.getBlock(), pos);
+				}
+			}
+			if(state.hasComparatorOutput()) {
+				level.updateComparators(pos, state.getBlock());
+			}
+		}
+		for(int i = 0; i < blockEntities.size(); i++) {
+			level.setBlockState(BlockPos.fromLong(blockEntities.getLong(i)), AIR, Block.NOTIFY_ALL);
+		}
+		if(minX <= maxX) {
+			for(MobEntity mob : level.getEntitiesByClass(MobEntity.class, new Box(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1).expand(16), mob -> !mob.getNavigation().isIdle())) {
+				mob.getNavigation().recalculatePath();
+			}
+		}
+		borders.clear();
+		borderStates.clear();
+		blockEntities.clear();
+		minX = minY = minZ = Integer.MAX_VALUE;
+		maxX = maxY = maxZ = Integer.MIN_VALUE;
+	}
+	
+	private boolean isBorder(BlockPos pos) {
+		int x = pos.getX();
+		int y = pos.getY();
+		int z = pos.getZ();
+		return !blocks.contains(x + 1, y, z) || !blocks.contains(x - 1, y, z) || !blocks.contains(x, y + 1, z) || !blocks.contains(x, y - 1, z) || !blocks.contains(x, y, z + 1) || !blocks.contains(x, y, z - 1);
+	}
+}
@@ -0,0 +1,81 @@
+package luckytntlib.util.explosions;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * ExplosionCellMemo remembers what an {@link ImprovedExplosion} already found out about a block,
+ * so that the many vectors passing the same block near the center of the explosion only evaluate it once.
+ * <p>
+ * Results are stored per 16x16x16 section, the same way blocks are stored in chunks.
+ */
+class ExplosionCellMemo {
+	
+	static final byte RESISTANCE_KNOWN = 1;
+	static final byte DESTRUCTION_KNOWN = 2;
+	static final byte DESTROYABLE = 4;
+	static final byte CONDITION_KNOWN = 8;
+	static final byte CONDITION_MET = 16;
+	
+	private final boolean storeResistance;
+	private final Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>();
+	private long lastKey;
+	@Nullable private Section lastSection;
+	
+	/**
+	 * @param storeResistance  whether or not resistances are remembered as well, which costs 16 kilobytes per section
+	 */
+	ExplosionCellMemo(boolean storeResistance) {
+		this.storeResistance = storeResistance;
+	}
+	
+	byte getFlags(int x, int y, int z) {
+		return getSection(x, y, z).flags[index(x, y, z)];
+	}
+	
+	void addFlags(int x, int y, int z, int flags) {
+		getSection(x, y, z).flags[index(x, y, z)] |= flags;
+	}
+	
+	float getResistance(int x, int y, int z) {
+		return getSection(x, y, z).resistances[index(x, y, z)];
+	}
+	
+	void setResistance(int x, int y, int z, float resistance) {
+		Section section = getSection(x, y, z);
+		int index = index(x, y, z);
+		section.resistances[index] = resistance;
+		section.flags[index] |= RESISTANCE_KNOWN;
+	}
+	
+	private Section getSection(int x, int y, int z) {
+		long key = ChunkSectionPos.asLong(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(y), ChunkSectionPos.getSectionCoord(z));
+		if(lastSection != null && key == lastKey) {
+			return lastSection;
+		}
+		Section section = sections.get(key);
+		if(section == null) {
+			section = new Section(storeResistance);
+			sections.put(key, section);
+		}
+		lastKey = key;
+		lastSection = section;
+		return section;
+	}
+	
+	private static int index(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+	}
+	
+	private static class Section {
+		
+		private final byte[] flags = new byte[4096];
+		private final float[] resistances;
+		
+		private Section(boolean storeResistance) {
+			resistances = storeResistance ? new float[4096] : null;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package luckytntlib.util.explosions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * ExplosionCoalescer collects the block explosions of a {@link ServerWorld} that are submitted during a tick and destroys their blocks at the end of the tick,
+ * merging every explosion with the same parameters and the default {@link net.minecraft.world.explosion.ExplosionBehavior} whose center is closer than half the size of the smaller one to the center of the first explosion of a group.
+ * Explosions are only compared to that first explosion, so a chain of explosions never grows into a single group.
+ * <p>
+ * Such explosions evaluate almost the same blocks, so a merged explosion shoots its vectors only once,
+ * from the center of the merged explosions weighted by their energy, which is the cube of their size.
+ * Its size is large enough to hold the summed energy of the merged explosions,
+ * but it only affects blocks within the reach of at least one of them, so it never destroys more than the union of the merged explosions could.
+ * <p>
+ * Explosions whose behavior overrides resistances or which blocks may be destroyed always explode on their own,
+ * as the merged explosion applies the behavior of a single one of them to all of their blocks.
+ * <p>
+ * Only the blocks are merged. Entities are damaged by every explosion on its own before it is submitted, so that the damage stays attributed to its source.
+ * The merged explosion is caused by the entity of the largest explosion it consists of.
+ */
+public class ExplosionCoalescer {
+
+	private static final Map<ServerWorld, ExplosionCoalescer> COALESCERS = new WeakHashMap<>();
+
+	private final List<Submission> submissions = new ArrayList<>();
+
+	private ExplosionCoalescer() {
+	}
+
+	/**
+	 * Gets the ExplosionCoalescer of a {@link ServerWorld}
+	 * @param level  the level
+	 * @return the ExplosionCoalescer
+	 */
+	public static ExplosionCoalescer get(ServerWorld level) {
+		return COALESCERS.computeIfAbsent(level, key -> new ExplosionCoalescer());
+	}
+
+	/**
+	 * Submits the block explosion of an {@link ImprovedExplosion}, which happens at the end of the tick
+	 * @param explosion  the explosion
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param fire  whether or not the explosion should spawn fire afterwards
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param incremental  whether or not the blocks are destroyed over multiple ticks, see {@link ImprovedExplosion#doIncrementalBlockExplosion}
+	 */
+	public void submit(ImprovedExplosion explosion, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion, boolean incremental) {
+		submissions.add(new Submission(explosion, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion, incremental));
+	}
+
+	/**
+	 * Merges the explosions submitted during this tick and destroys their blocks
+	 * @param level  the level of this ExplosionCoalescer
+	 */
+	public void tick(ServerWorld level) {
+		if(submissions.isEmpty()) {
+			return;
+		}
+		List<Submission> pending = new ArrayList<>(submissions);
+		submissions.clear();
+		boolean[] merged = new boolean[pending.size()];
+		List<Submission> group = new ArrayList<>();
+		for(int first = 0; first < pending.size(); first++) {
+			if(merged[first]) {
+				continue;
+			}
+			merged[first] = true;
+			Submission seed = pending.get(first);
+			group.clear();
+			group.add(seed);
+			for(int other = first + 1; other < pending.size(); other++) {
+				if(!merged[other] && seed.overlaps(pending.get(other))) {
+					merged[other] = true;
+					group.add(pending.get(other));
+				}
+			}
+			if(group.size() == 1) {
+				group.get(0).explode(group.get(0).explosion);
+			} else {
+				explodeMerged(level, group);
+			}
+		}
+	}
+
+	/**
+	 * Destroys the blocks of overlapping explosions in a single explosion that is bounded by the reach of each of them
+	 * @param level  the level
+	 * @param group  the overlapping explosions
+	 */
+	private void explodeMerged(ServerWorld level, List<Submission> group) {
+		double energy = 0, x = 0, y = 0, z = 0;
+		double[] spheres = new double[group.size() * 4];
+		Submission largest = group.get(0);
+		for(int i = 0; i < group.size(); i++) {
+			Submission submission = group.get(i);
+			ImprovedExplosion explosion = submission.explosion;
+			double reach = explosion.getReach(submission.xzStrength, submission.yStrength, submission.randomVecLength);
+			spheres[i * 4] = explosion.posX;
+			spheres[i * 4 + 1] = explosion.posY;
+			spheres[i * 4 + 2] = explosion.posZ;
+			spheres[i * 4 + 3] = reach * reach;
+			double weight = (double)explosion.size * explosion.size * explosion.size;
+			energy += weight;
+			x += explosion.posX * weight;
+			y += explosion.posY * weight;
+			z += explosion.posZ * weight;
+			if(explosion.size > largest.explosion.size) {
+				largest = submission;
+			}
+			explosion.cancelPrecomputation();
+		}
+		if(energy <= 0) {
+			return;
+		}
+		x /= energy;
+		y /= energy;
+		z /= energy;
+		double size = Math.cbrt(energy);
+		for(Submission submission : group) {
+			ImprovedExplosion explosion = submission.explosion;
+			double offX = explosion.posX - x;
+			double offY = explosion.posY - y;
+			double offZ = explosion.posZ - z;
+			size = Math.max(size, Math.sqrt(offX * offX + offY * offY + offZ * offZ) + explosion.size);
+		}
+		Entity entity = largest.explosion.getEntity();
+		ImprovedExplosion explosion = new ImprovedExplosion(level, entity, x, y, z, (int)Math.ceil(size));
+		explosion.setEngine(largest.explosion.getEngine());
+		explosion.setBound((world, pos, state, distance) -> {
+			for(int i = 0; i < spheres.length; i += 4) {
+				double offX = pos.getX() + 0.5d - spheres[i];
+				double offY = pos.getY() + 0.5d - spheres[i + 1];
+				double offZ = pos.getZ() + 0.5d - spheres[i + 2];
+				if(offX * offX + offY * offY + offZ * offZ <= spheres[i + 3]) {
+					return true;
+				}
+			}
+			return false;
+		});
+		largest.explode(explosion);
+	}
+
+	/**
+	 * A submitted explosion together with the parameters of its block explosion
+	 */
+	private static class Submission {
+
+		private final ImprovedExplosion explosion;
+		private final float xzStrength, yStrength, resistanceImpact, randomVecLength;
+		private final boolean fire, isStrongExplosion, incremental;
+		private final boolean defaultBehavior;
+
+		private Submission(ImprovedExplosion explosion, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion, boolean incremental) {
+			this.explosion = explosion;
+			this.xzStrength = xzStrength;
+			this.yStrength = yStrength;
+			this.resistanceImpact = resistanceImpact;
+			this.randomVecLength = randomVecLength;
+			this.fire = fire;
+			this.isStrongExplosion = isStrongExplosion;
+			this.incremental = incremental;
+			this.defaultBehavior = explosion.usesDefaultBehavior();
+		}
+
+		/**
+		 * Checks whether two explosions can be merged, which requires the default behavior, the same parameters and centers closer than half the size of the smaller explosion
+		 * @param other  the other submitted explosion
+		 * @return whether or not the explosions can be merged
+		 */
+		private boolean overlaps(Submission other) {
+			if(!defaultBehavior || !other.defaultBehavior || xzStrength != other.xzStrength || yStrength != other.yStrength || resistanceImpact != other.resistanceImpact || randomVecLength != other.randomVecLength
+					|| fire != other.fire || isStrongExplosion != other.isStrongExplosion || incremental != other.incremental || explosion.getEngine() != other.explosion.getEngine()) {
+				return false;
+			}
+			double offX = explosion.posX - other.explosion.posX;
+			double offY = explosion.posY - other.explosion.posY;
+			double offZ = explosion.posZ - other.explosion.posZ;
+			double distance = Math.min(explosion.size, other.explosion.size) / 2d;
+			return offX * offX + offY * offY + offZ * offZ <= distance * distance;
+		}
+
+		/**
+		 * Destroys the blocks of an explosion with the parameters of this submission
+		 * @param target  the explosion whose blocks are destroyed
+		 */
+		private void explode(ImprovedExplosion target) {
+			if(incremental) {
+				target.doIncrementalBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+			} else {
+				target.doBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+			}
+		}
+	}
+}
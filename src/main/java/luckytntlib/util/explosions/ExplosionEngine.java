@@ -0,0 +1,40 @@
+package luckytntlib.util.explosions;
+
+import luckytntlib.config.LuckyTNTLibConfigValues;
+
+/**
+ * The ExplosionEngine determines how an {@link ImprovedExplosion} finds the blocks it affects.
+ * Every engine uses the same resistance calculation and the same callbacks, only the way the explosion vectors are evaluated differs.
+ */
+public enum ExplosionEngine {
+	
+	/**
+	 * Moves the explosion vectors forward in fixed steps determined by {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}.
+	 * Blocks may be sampled multiple times and diagonal blocks may be skipped.
+	 */
+	RAYCAST,
+	
+	/**
+	 * Traverses the block grid along the explosion vectors, visiting every block a vector passes exactly once.
+	 * The resistance falloff matches the finest {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}, which is ignored by this engine.
+	 */
+	VOXEL_RAYCAST,
+	
+	/**
+	 * Evaluates the same blocks as {@link ExplosionEngine#RAYCAST}, but moves the explosion vectors forward in groups of eight that take their steps together.
+	 * The positions of a whole group are converted to block positions in one tight loop, which the JIT can vectorize, before the blocks are evaluated one by one.
+	 */
+	BATCHED_RAYCAST,
+	
+	/**
+	 * Moves a sparse set of explosion vectors forward like {@link ExplosionEngine#RAYCAST} and only adds more vectors where neighboring ones end at very different distances.
+	 * Everything in between vectors that agree is destroyed without shooting further vectors, which saves most of the work for very large explosions in open terrain.
+	 */
+	HIERARCHICAL,
+	
+	/**
+	 * Spreads the energy of the explosion from its center to neighboring blocks instead of shooting vectors, visiting every block at most once.
+	 * Best suited for explosions that destroy most of their sphere anyway, where vectors would evaluate the same blocks over and over again.
+	 */
+	FLOOD_FILL;
+}
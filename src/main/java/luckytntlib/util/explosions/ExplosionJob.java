@@ -0,0 +1,170 @@
+package luckytntlib.util.explosions;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.AbstractFireBlock;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * An ExplosionJob destroys the blocks of an {@link ImprovedExplosion} over multiple ticks.
+ * Blocks are destroyed section by section, 64 at a time through an {@link ExplosionBlockWriter}, until the time given to the job in a tick runs out.
+ * Fire is placed in a second pass once all blocks are destroyed, just like {@link ImprovedExplosion#doBlockExplosion(float, float, float, float, boolean, boolean)} does.
+ * <p>
+ * Finished blocks are removed from the job, so that an unfinished job can be saved and resumed later on.
+ * The whole crater is kept next to them, as the writer needs it to tell which blocks are on the border of the crater,
+ * and so is the entity that caused the explosion, which is looked up by its {@link UUID} again after a restart.
+ */
+public class ExplosionJob {
+	
+	private final double posX, posY, posZ;
+	private final int size;
+	private final ExplosionBlockSet blocks;
+	private final ExplosionBlockSet crater;
+	@Nullable private final ExplosionBlockSet fireBlocks;
+	@Nullable private final UUID entityId;
+	@Nullable private Entity entity;
+	private final long seed;
+	private final SplittableRandom random;
+	private long[] sectionKeys;
+	private int section = 0;
+	private int word = 0;
+	@Nullable private ImprovedExplosion explosion;
+	
+	/**
+	 * Creates a new ExplosionJob
+	 * @param posX  the x center position of the explosion
+	 * @param posY  the y center position of the explosion
+	 * @param posZ  the z center position of the explosion
+	 * @param size  the size of the explosion
+	 * @param entity  the entity that caused the explosion, may be null
+	 * @param blocks  the blocks to destroy, which are owned and modified by the job from now on
+	 * @param fire  whether or not the explosion should spawn fire afterwards
+	 * @param seed  the seed of the random numbers used to place fire
+	 */
+	public ExplosionJob(double posX, double posY, double posZ, int size, @Nullable Entity entity, ExplosionBlockSet blocks, boolean fire, long seed) {
+		this(posX, posY, posZ, size, entity == null ? null : entity.getUuid(), blocks, blocks.copy(), fire ? blocks.copy() : null, seed);
+		this.entity = entity;
+	}
+	
+	private ExplosionJob(double posX, double posY, double posZ, int size, @Nullable UUID entityId, ExplosionBlockSet blocks, ExplosionBlockSet crater, @Nullable ExplosionBlockSet fireBlocks, long seed) {
+		this.posX = posX;
+		this.posY = posY;
+		this.posZ = posZ;
+		this.size = size;
+		this.entityId = entityId;
+		this.blocks = blocks;
+		this.crater = crater;
+		this.fireBlocks = fireBlocks;
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
+		sectionKeys = blocks.isEmpty() && fireBlocks != null ? fireBlocks.getSectionKeys() : blocks.getSectionKeys();
+	}
+	
+	/**
+	 * Destroys blocks until the job is finished or the deadline has passed
+	 * @param level  the level
+	 * @param deadline  the value of {@link System#nanoTime()} at which the job has to pause
+	 * @return true if the job is finished
+	 */
+	public boolean tick(ServerWorld level, long deadline) {
+		if(explosion == null) {
+			if(entity == null && entityId != null) {
+				entity = level.getEntity(entityId);
+			}
+			explosion = new ImprovedExplosion(level, entity, new Vec3d(posX, posY, posZ), size);
+		}
+		ExplosionBlockWriter writer = new ExplosionBlockWriter(level, explosion, crater);
+		boolean finished = work(level, writer, deadline);
+		writer.finish();
+		return finished;
+	}
+	
+	private boolean work(ServerWorld level, ExplosionBlockWriter writer, long deadline) {
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		while(System.nanoTime() < deadline) {
+			boolean destroying = !blocks.isEmpty();
+			ExplosionBlockSet current = destroying ? blocks : fireBlocks;
+			if(current == null || current.isEmpty()) {
+				return true;
+			}
+			if(section >= sectionKeys.length) {
+				sectionKeys = current.getSectionKeys();
+				section = 0;
+				word = 0;
+				continue;
+			}
+			long key = sectionKeys[section];
+			long[] bits = current.getSectionBits(key);
+			if(bits != null) {
+				long value = bits[word];
+				if(destroying) {
+					writer.removeWord(key, word, value);
+				} else {
+					int baseX = ChunkSectionPos.unpackX(key) << 4;
+					int baseY = ChunkSectionPos.unpackY(key) << 4;
+					int baseZ = ChunkSectionPos.unpackZ(key) << 4;
+					while(value != 0) {
+						int index = word << 6 | Long.numberOfTrailingZeros(value);
+						pos.set(baseX + (index & 15), baseY + (index >>> 8), baseZ + (index >>> 4 & 15));
+						if(random.nextDouble() > 0.75f && level.getBlockState(pos).isAir() && level.getBlockState(pos.down()).isOpaqueFullCube(level, pos)) {
+							level.setBlockState(pos, AbstractFireBlock.getState(level, pos));
+						}
+						value &= value - 1;
+					}
+				}
+				current.clearWord(key, word);
+			}
+			if(bits == null || ++word == 64) {
+				section++;
+				word = 0;
+			}
+		}
+		return blocks.isEmpty() && (fireBlocks == null || fireBlocks.isEmpty());
+	}
+	
+	/**
+	 * Writes the remaining work of this job to a {@link NbtCompound}
+	 * @return the {@link NbtCompound}
+	 */
+	public NbtCompound toNbt() {
+		NbtCompound tag = new NbtCompound();
+		tag.putDouble("X", posX);
+		tag.putDouble("Y", posY);
+		tag.putDouble("Z", posZ);
+		tag.putInt("Size", size);
+		tag.putLong("Seed", seed);
+		if(entityId != null) {
+			tag.putUuid("Entity", entityId);
+		}
+		tag.put("Blocks", blocks.toNbt());
+		if(!blocks.isEmpty()) {
+			tag.put("Crater", crater.toNbt());
+		}
+		if(fireBlocks != null) {
+			tag.put("FireBlocks", fireBlocks.toNbt());
+		}
+		return tag;
+	}
+	
+	/**
+	 * Reads a job written by {@link ExplosionJob#toNbt()}
+	 * @param tag  the {@link NbtCompound}
+	 * @return the new ExplosionJob
+	 */
+	public static ExplosionJob fromNbt(NbtCompound tag) {
+		ExplosionBlockSet blocks = ExplosionBlockSet.fromNbt(tag.getList("Blocks", NbtElement.COMPOUND_TYPE));
+		ExplosionBlockSet crater = tag.contains("Crater", NbtElement.LIST_TYPE) ? ExplosionBlockSet.fromNbt(tag.getList("Crater", NbtElement.COMPOUND_TYPE)) : blocks.copy();
+		ExplosionBlockSet fireBlocks = tag.contains("FireBlocks", NbtElement.LIST_TYPE) ? ExplosionBlockSet.fromNbt(tag.getList("FireBlocks", NbtElement.COMPOUND_TYPE)) : null;
+		UUID entityId = tag.containsUuid("Entity") ? tag.getUuid("Entity") : null;
+		return new ExplosionJob(tag.getDouble("X"), tag.getDouble("Y"), tag.getDouble("Z"), tag.getInt("Size"), entityId, blocks, crater, fireBlocks, tag.getLong("Seed"));
+	}
+}
@@ -0,0 +1,78 @@
+package luckytntlib.util.explosions;
+
+import java.util.ArrayDeque;
+
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.config.LuckyTNTLibConfigValues;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.PersistentState;
+
+/**
+ * ExplosionJobManager holds the unfinished {@link ExplosionJob}s of a {@link ServerWorld} and works on them at the end of every tick,
+ * spending no more time than {@link LuckyTNTLibConfigValues#INCREMENTAL_EXPLOSION_BUDGET} allows.
+ * Jobs are worked on in the order they were added and are saved with the world, so unfinished craters survive a restart.
+ */
+public class ExplosionJobManager extends PersistentState {
+	
+	private static final String NAME = LuckyTNTLib.MODID + "_explosion_jobs";
+	private static final PersistentState.Type<ExplosionJobManager> TYPE = new PersistentState.Type<>(ExplosionJobManager::new, ExplosionJobManager::fromNbt, null);
+	
+	private final ArrayDeque<ExplosionJob> jobs = new ArrayDeque<>();
+	
+	/**
+	 * Gets the ExplosionJobManager of a {@link ServerWorld}, loading it from the save if necessary
+	 * @param level  the level
+	 * @return the ExplosionJobManager
+	 */
+	public static ExplosionJobManager get(ServerWorld level) {
+		return level.getPersistentStateManager().getOrCreate(TYPE, NAME);
+	}
+	
+	/**
+	 * Adds a job that is started once all previous jobs are finished
+	 * @param job  the {@link ExplosionJob}
+	 */
+	public void add(ExplosionJob job) {
+		jobs.add(job);
+		markDirty();
+	}
+	
+	/**
+	 * Works on the jobs until all of them are finished or the time budget of this tick is used up
+	 * @param level  the level
+	 */
+	public void tick(ServerWorld level) {
+		if(jobs.isEmpty()) {
+			return;
+		}
+		long deadline = System.nanoTime() + LuckyTNTLibConfigValues.INCREMENTAL_EXPLOSION_BUDGET.getInt();
+		while(!jobs.isEmpty() && System.nanoTime() < deadline) {
+			if(jobs.peek().tick(level, deadline)) {
+				jobs.poll();
+			}
+		}
+		markDirty();
+	}
+	
+	@Override
+	public NbtCompound writeNbt(NbtCompound tag) {
+		NbtList list = new NbtList();
+		for(ExplosionJob job : jobs) {
+			list.add(job.toNbt());
+		}
+		tag.put("Jobs", list);
+		return tag;
+	}
+	
+	private static ExplosionJobManager fromNbt(NbtCompound tag) {
+		ExplosionJobManager manager = new ExplosionJobManager();
+		NbtList list = tag.getList("Jobs", NbtElement.COMPOUND_TYPE);
+		for(int i = 0; i < list.size(); i++) {
+			manager.jobs.add(ExplosionJob.fromNbt(list.getCompound(i)));
+		}
+		return manager;
+	}
+}
@@ -0,0 +1,167 @@
+package luckytntlib.util.explosions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.network.ExplosionBundleS2CPacket;
+import luckytntlib.network.ExplosionBundleS2CPacket.Sound;
+import luckytntlib.network.ExplosionSectionDeltaS2CPacket;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * ExplosionNetworkAggregator collects the destroyed blocks and sounds of all explosions of a {@link ServerWorld} during a tick
+ * and sends every player a single {@link ExplosionBundleS2CPacket} at the end of the tick, instead of one packet per explosion and sound.
+ * <p>
+ * A player only gets the sections of the chunks it tracks and the sounds it is able to hear.
+ * The first {@link ExplosionNetworkAggregator#MAX_NEAR_SOUNDS} sounds within {@link ExplosionNetworkAggregator#NEAR_DISTANCE} blocks are kept as they are,
+ * while all other sounds of the same kind are merged into one sound at their average position per distance band of {@link ExplosionNetworkAggregator#NEAR_DISTANCE} blocks,
+ * as a chain reaction far away sounds the same no matter how many TNT it consists of.
+ * The bands keep the near sounds that exceed the limit from being pulled away by the far ones and far sounds from being played right next to the player.
+ * <p>
+ * Entity knockback is not collected, as the velocity of an entity is already sent at most once per tick by the entity tracker.
+ */
+public class ExplosionNetworkAggregator {
+
+	private static final Map<ServerWorld, ExplosionNetworkAggregator> AGGREGATORS = new WeakHashMap<>();
+	private static final double NEAR_DISTANCE = 24;
+	private static final int MAX_NEAR_SOUNDS = 8;
+
+	private final ExplosionBlockSet blocks = new ExplosionBlockSet();
+	private final List<Sound> sounds = new ArrayList<>();
+
+	private ExplosionNetworkAggregator() {
+	}
+
+	/**
+	 * Gets the ExplosionNetworkAggregator of a {@link ServerWorld}
+	 * @param level  the level
+	 * @return the ExplosionNetworkAggregator
+	 */
+	public static ExplosionNetworkAggregator get(ServerWorld level) {
+		return AGGREGATORS.computeIfAbsent(level, key -> new ExplosionNetworkAggregator());
+	}
+
+	/**
+	 * Plays a sound of an explosive, collecting it until the end of the tick on the logical server side
+	 * @param level  the level
+	 * @param pos  the position of the sound
+	 * @param sound  the {@link SoundEvent}
+	 * @param category  the {@link SoundCategory}
+	 * @param volume  the volume
+	 * @param pitch  the pitch
+	 */
+	public static void playSound(World level, BlockPos pos, SoundEvent sound, SoundCategory category, float volume, float pitch) {
+		if(level instanceof ServerWorld serverLevel && Registries.SOUND_EVENT.getId(sound) != null) {
+			get(serverLevel).sounds.add(new Sound(sound, category, pos.getX() + 0.5d, pos.getY() + 0.5d, pos.getZ() + 0.5d, volume, pitch));
+		} else {
+			level.playSound(null, pos, sound, category, volume, pitch);
+		}
+	}
+
+	/**
+	 * Adds destroyed blocks that are sent at the end of the tick
+	 * @param destroyed  the destroyed blocks
+	 */
+	void addBlocks(ExplosionBlockSet destroyed) {
+		blocks.addAll(destroyed);
+	}
+
+	/**
+	 * Sends everything collected so far. This happens at the end of every tick,
+	 * but also before an {@link ExplosionReplay}, as it has to reach the clients after the blocks destroyed before it.
+	 * @param level  the level of this ExplosionNetworkAggregator
+	 */
+	public void flush(ServerWorld level) {
+		if(blocks.isEmpty() && sounds.isEmpty()) {
+			return;
+		}
+		Map<ServerPlayerEntity, long[]> sections = blocks.isEmpty() ? Map.of() : ExplosionSectionDeltas.getSectionsPerPlayer(level, blocks);
+		for(ServerPlayerEntity player : level.getPlayers()) {
+			long[] keys = sections.get(player);
+			List<Sound> audible = getAudibleSounds(player);
+			if(keys == null && audible.isEmpty()) {
+				continue;
+			}
+			ExplosionSectionDeltaS2CPacket deltas = null;
+			if(keys != null) {
+				if(keys.length > ExplosionSectionDeltas.MAX_SECTIONS) {
+					ExplosionSectionDeltas.send(level, blocks, player, Arrays.copyOfRange(keys, ExplosionSectionDeltas.MAX_SECTIONS, keys.length));
+					keys = Arrays.copyOf(keys, ExplosionSectionDeltas.MAX_SECTIONS);
+				}
+				deltas = new ExplosionSectionDeltaS2CPacket(level, blocks, keys);
+			}
+			LuckyTNTLib.RH.sendS2CPacket(player, new ExplosionBundleS2CPacket(audible, deltas));
+		}
+		blocks.clear();
+		sounds.clear();
+	}
+
+	/**
+	 * Gets the sounds a player is able to hear, merging the ones that are far away or exceed {@link ExplosionNetworkAggregator#MAX_NEAR_SOUNDS}
+	 * with the sounds of the same kind in the same distance band
+	 * @param player  the player
+	 * @return the sounds
+	 */
+	private List<Sound> getAudibleSounds(ServerPlayerEntity player) {
+		List<Sound> audible = new ArrayList<>();
+		Map<SoundEvent, Int2ObjectOpenHashMap<MergedSound>> merged = new HashMap<>();
+		for(Sound sound : sounds) {
+			double range = sound.volume > 1f ? 16f * sound.volume : 16f;
+			double distanceSq = player.squaredDistanceTo(sound.x, sound.y, sound.z);
+			if(distanceSq > range * range) {
+				continue;
+			}
+			if(distanceSq <= NEAR_DISTANCE * NEAR_DISTANCE && audible.size() < MAX_NEAR_SOUNDS) {
+				audible.add(sound);
+				continue;
+			}
+			int band = (int)(Math.sqrt(distanceSq) / NEAR_DISTANCE);
+			merged.computeIfAbsent(sound.sound, key -> new Int2ObjectOpenHashMap<>()).computeIfAbsent(band, key -> new MergedSound(sound)).add(sound);
+		}
+		for(Int2ObjectOpenHashMap<MergedSound> bands : merged.values()) {
+			for(MergedSound sound : bands.values()) {
+				audible.add(sound.toSound());
+			}
+		}
+		return audible;
+	}
+
+	/**
+	 * Sounds of the same kind within the same distance band that are played as a single sound
+	 */
+	private static class MergedSound {
+
+		private final Sound first;
+		private double x, y, z;
+		private float volume;
+		private int count;
+
+		private MergedSound(Sound first) {
+			this.first = first;
+		}
+
+		private void add(Sound sound) {
+			x += sound.x;
+			y += sound.y;
+			z += sound.z;
+			volume = Math.max(volume, sound.volume);
+			count++;
+		}
+
+		private Sound toSound() {
+			return new Sound(first.sound, first.category, x / count, y / count, z / count, volume, first.pitch);
+		}
+	}
+}
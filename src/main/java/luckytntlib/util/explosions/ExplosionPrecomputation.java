@@ -0,0 +1,145 @@
+package luckytntlib.util.explosions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinTask;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+
+/**
+ * An ExplosionPrecomputation is the result of an {@link ImprovedExplosion} whose vectors have been shot on a worker thread 
+ * ahead of time, for instance while the fuse of a TNT is still burning.
+ * It is computed on a copied {@link ExplosionSectionSnapshot} and is only used if the sections it has been computed with 
+ * have not changed and the explosion that uses it happens at exactly the same position with the same parameters.
+ * A primed TNT that has been moved during the fuse, for instance by a neighboring explosion, computes its blocks again.
+ * Otherwise the explosion falls back to computing its blocks right away.
+ * <p>
+ * The precomputation of an entity is kept until the entity explodes or is removed from its level, whichever happens first.
+ * It does not reference the entity it belongs to, as that would keep the entity and the copied sections loaded.
+ */
+public class ExplosionPrecomputation {
+	
+	private static final Map<Entity, ExplosionPrecomputation> PENDING = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	private final World level;
+	private final int entityId;
+	private final double posX, posY, posZ;
+	private final int size;
+	private final long seed;
+	private final ExplosionEngine engine;
+	private final float[] resistances;
+	private final float xzStrength, yStrength, resistanceImpact, randomVecLength;
+	private final boolean isStrongExplosion;
+	private final boolean sphere;
+	private final double factor;
+	private final ExplosionSectionSnapshot snapshot;
+	private final ForkJoinTask<ExplosionBlockSet> task;
+	
+	ExplosionPrecomputation(ImprovedExplosion explosion, float[] resistances, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, boolean sphere, double factor, ExplosionSectionSnapshot snapshot, ForkJoinTask<ExplosionBlockSet> task) {
+		this.level = explosion.level;
+		this.entityId = getEntityId(explosion.getEntity());
+		this.posX = explosion.posX;
+		this.posY = explosion.posY;
+		this.posZ = explosion.posZ;
+		this.size = explosion.size;
+		this.seed = explosion.getSeed();
+		this.engine = explosion.getEngine();
+		this.resistances = resistances;
+		this.xzStrength = xzStrength;
+		this.yStrength = yStrength;
+		this.resistanceImpact = resistanceImpact;
+		this.randomVecLength = randomVecLength;
+		this.isStrongExplosion = isStrongExplosion;
+		this.sphere = sphere;
+		this.factor = factor;
+		this.snapshot = snapshot;
+		this.task = task;
+	}
+	
+	/**
+	 * Remembers the ExplosionPrecomputation of an entity until it explodes, cancelling the previous one if there is any.
+	 * @param entity  the exploding entity
+	 * @param precomputation  the ExplosionPrecomputation
+	 */
+	public static void store(Entity entity, ExplosionPrecomputation precomputation) {
+		ExplosionPrecomputation previous = PENDING.put(entity, precomputation);
+		if(previous != null) {
+			previous.cancel();
+		}
+	}
+	
+	/**
+	 * Gets and forgets the ExplosionPrecomputation of an entity
+	 * @param entity  the exploding entity
+	 * @return the ExplosionPrecomputation or null if there is none
+	 */
+	@Nullable
+	public static ExplosionPrecomputation take(Entity entity) {
+		return PENDING.remove(entity);
+	}
+	
+	/**
+	 * Forgets and cancels the ExplosionPrecomputation of an entity that has been removed from its level without exploding
+	 * @param entity  the removed entity
+	 */
+	public static void discard(Entity entity) {
+		ExplosionPrecomputation precomputation = PENDING.remove(entity);
+		if(precomputation != null) {
+			precomputation.cancel();
+		}
+	}
+	
+	private static int getEntityId(@Nullable Entity entity) {
+		return entity == null ? -1 : entity.getId();
+	}
+	
+	/**
+	 * Gets the seed the blocks have been computed with
+	 * @return the seed
+	 */
+	long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Stops the computation if it has not started yet
+	 */
+	public void cancel() {
+		task.cancel(false);
+	}
+	
+	/**
+	 * Gets the precomputed blocks for an explosion, waiting for the worker thread if it has not finished yet.
+	 * @implNote must only be used on the thread that ticks the level
+	 * @param explosion  the explosion that is about to happen
+	 * @param resistances  the resistance table the explosion would use
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the distribution of the length of the explosion vectors
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param sphere  whether the vectors orient to the shell of a sphere
+	 * @param factor  the {@link luckytntlib.config.LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}
+	 * @return the precomputed blocks or null if they can not be used for this explosion
+	 */
+	@Nullable
+	ExplosionBlockSet getResult(ImprovedExplosion explosion, float[] resistances, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, boolean sphere, double factor) {
+		boolean matches = explosion.level == level && getEntityId(explosion.getEntity()) == entityId && explosion.size == size && explosion.getEngine() == engine && resistances == this.resistances 
+				&& xzStrength == this.xzStrength && yStrength == this.yStrength && resistanceImpact == this.resistanceImpact && randomVecLength == this.randomVecLength 
+				&& isStrongExplosion == this.isStrongExplosion && sphere == this.sphere && factor == this.factor 
+				&& explosion.posX == posX && explosion.posY == posY && explosion.posZ == posZ;
+		if(!matches || !snapshot.isUpToDate(level)) {
+			cancel();
+			return null;
+		}
+		try {
+			return task.join();
+		} catch(RuntimeException e) {
+			return null;
+		}
+	}
+}
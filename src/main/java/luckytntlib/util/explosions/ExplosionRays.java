@@ -0,0 +1,148 @@
+package luckytntlib.util.explosions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * ExplosionRays provides the normalized directions of the vectors shot by an {@link ImprovedExplosion}.
+ * The directions only depend on the size of the explosion, on the shape the vectors orient to and, for vectors spread evenly over all directions, on where the crater ends,
+ * which is why they are computed once per size or distance and shape and then shared by all explosions.
+ * At most {@link ExplosionRays#MAX_CACHED} tables are kept at a time.
+ * <p>
+ * Directions are stored as a flat float array of consecutive x, y and z components.
+ */
+public class ExplosionRays {
+
+	private static final int MAX_CACHED = 32;
+	private static final int MAX_DIRECTIONS = Integer.MAX_VALUE / 3;
+	private static final Map<Long, float[]> DIRECTIONS = new ConcurrentHashMap<>();
+	private static final float[] NO_DIRECTIONS = new float[0];
+
+	private ExplosionRays() {
+	}
+
+	/**
+	 * Gets the cached ray directions for an explosion or computes them if they do not exist yet.
+	 * @param size  the size of the explosion
+	 * @param sphere  whether the vectors orient to the shell of a sphere (performant explosion) or are spread evenly over all directions
+	 * @param fringe  the distance at which the crater ends in solid blocks, which decides how many directions are needed if they are spread evenly over all directions.
+	 * It is limited to the distance at which there are as many directions as there are cells on the borders of a cube of the size
+	 * @return a flat array of normalized x, y and z components. Must not be modified
+	 */
+	public static float[] getDirections(int size, boolean sphere, double fringe) {
+		if(size <= 0) {
+			return NO_DIRECTIONS;
+		}
+		if(sphere) {
+			return getCached(((long)size << 1) | 1, () -> computeSphereShell(size));
+		}
+		double maxRadius = size * Math.sqrt(6 / Math.PI);
+		int radius = (int)Math.ceil(Math.min(Math.max(fringe, 1), maxRadius));
+		return getCached((long)radius << 1, () -> computeFibonacciSphere(radius));
+	}
+
+	/**
+	 * Gets a cached direction table, forgetting all tables once {@link ExplosionRays#MAX_CACHED} of them are kept,
+	 * as explosions of arbitrary sizes would otherwise fill the memory
+	 * @param key  the key of the table
+	 * @param compute  computes the table if it is not cached
+	 * @return the table
+	 */
+	private static float[] getCached(long key, Supplier<float[]> compute) {
+		float[] directions = DIRECTIONS.get(key);
+		if(directions == null) {
+			if(DIRECTIONS.size() >= MAX_CACHED) {
+				DIRECTIONS.clear();
+			}
+			directions = DIRECTIONS.computeIfAbsent(key, k -> compute.get());
+		}
+		return directions;
+	}
+
+	/**
+	 * Computes the directions to all offsets whose distance to the center, rounded down, equals the size.
+	 * Only the offsets of the shell are visited instead of the whole cube.
+	 * @param size  the size of the explosion
+	 * @return a flat array of normalized x, y and z components
+	 */
+	private static float[] computeSphereShell(int size) {
+		FloatList directions = new FloatList(size * size * 48);
+		long inner = (long)size * size;
+		long outer = (long)(size + 1) * (size + 1);
+		for(int offX = -size; offX <= size; offX++) {
+			for(int offY = -size; offY <= size; offY++) {
+				long xy = (long)offX * offX + (long)offY * offY;
+				if(xy >= outer) {
+					continue;
+				}
+				long min = Math.max(0, inner - xy);
+				long max = outer - xy;
+				int offZ = (int)Math.sqrt(min);
+				while((long)offZ * offZ < min) {
+					offZ++;
+				}
+				for(; (long)offZ * offZ < max; offZ++) {
+					directions.addNormalized(offX, offY, offZ);
+					if(offZ != 0) {
+						directions.addNormalized(offX, offY, -offZ);
+					}
+				}
+			}
+		}
+		return directions.toArray();
+	}
+
+	/**
+	 * Computes directions that are spread evenly over the whole sphere by placing them on a Fibonacci spiral.
+	 * There are enough directions for neighboring vectors to stay less than a block apart at the given radius, which is 4π·radius² directions.
+	 * For a radius equal to the size this is about half as many as there are cells on the borders of a cube of the same size, whose corners get far more vectors than its faces.
+	 * @param radius  the distance up to which neighboring vectors stay less than a block apart
+	 * @return a flat array of normalized x, y and z components
+	 */
+	private static float[] computeFibonacciSphere(int radius) {
+		int count = (int)Math.min((long)Math.ceil(4 * Math.PI * radius * radius), MAX_DIRECTIONS);
+		float[] directions = new float[count * 3];
+		double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+		for(int index = 0; index < count; index++) {
+			double y = 1 - (2 * index + 1) / (double)count;
+			double radius = Math.sqrt(1 - y * y);
+			double angle = goldenAngle * index;
+			directions[index * 3] = (float)(Math.cos(angle) * radius);
+			directions[index * 3 + 1] = (float)y;
+			directions[index * 3 + 2] = (float)(Math.sin(angle) * radius);
+		}
+		return directions;
+	}
+
+	/**
+	 * A minimal growable list of primitive floats used while building the direction tables
+	 */
+	private static class FloatList {
+
+		private float[] values;
+		private int size = 0;
+
+		private FloatList(int capacity) {
+			values = new float[Math.max(capacity, 3)];
+		}
+
+		private void addNormalized(int x, int y, int z) {
+			double distance = Math.sqrt(x * x + y * y + z * z);
+			if(size + 3 > values.length) {
+				float[] newValues = new float[values.length * 2];
+				System.arraycopy(values, 0, newValues, 0, size);
+				values = newValues;
+			}
+			values[size++] = (float)(x / distance);
+			values[size++] = (float)(y / distance);
+			values[size++] = (float)(z / distance);
+		}
+
+		private float[] toArray() {
+			float[] array = new float[size];
+			System.arraycopy(values, 0, array, 0, size);
+			return array;
+		}
+	}
+}
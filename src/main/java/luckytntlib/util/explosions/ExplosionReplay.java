@@ -0,0 +1,262 @@
+package luckytntlib.util.explosions;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.mixin.ThreadedAnvilChunkStorageAccessor;
+import luckytntlib.network.ExplosionReplayMismatchC2SPacket;
+import luckytntlib.network.ExplosionReplayS2CPacket;
+import luckytntlib.util.LuckyTNTChunkSectionExtension;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ChunkHolder;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * ExplosionReplay lets clients compute the crater of a large {@link ImprovedExplosion} by themselves instead of receiving every destroyed block.
+ * <p>
+ * The crater of an explosion only depends on its parameters, its seed and the blocks it is able to reach,
+ * so the server sends these parameters together with a hash of the sections containing the crater and of the sections right next to them, taken before any block is destroyed.
+ * Block changes made through the level earlier in the tick are sent before the hash is taken, as they would otherwise only reach the clients after the packet.
+ * A client computes the crater as well and hashes the same sections around its own crater, before replacing it with air only if both hashes are equal.
+ * The hash of a section is cached until the section changes, see {@link LuckyTNTChunkSectionExtension#getExplosionHash()}.
+ * Any other client answers with an {@link ExplosionReplayMismatchC2SPacket}, upon which the server sends the destroyed blocks through {@link ExplosionSectionDeltas}.
+ * The destroyed blocks are kept for {@link ExplosionReplay#LIFETIME} ticks by the ExplosionReplay of the {@link ServerWorld} to be able to answer.
+ */
+public class ExplosionReplay {
+
+	static final int MIN_BLOCKS = 4096;
+	private static final int UNLOADED_HASH = -1;
+	private static final int LIFETIME = 200;
+	private static final Map<ServerWorld, ExplosionReplay> REPLAYS = new WeakHashMap<>();
+
+	private final Int2ObjectLinkedOpenHashMap<SentReplay> sent = new Int2ObjectLinkedOpenHashMap<>();
+	private int nextId = 0;
+
+	private ExplosionReplay() {
+	}
+
+	/**
+	 * Gets the ExplosionReplay of a {@link ServerWorld}
+	 * @param level  the level
+	 * @return the ExplosionReplay
+	 */
+	public static ExplosionReplay get(ServerWorld level) {
+		return REPLAYS.computeIfAbsent(level, key -> new ExplosionReplay());
+	}
+
+	/**
+	 * Forgets every sent explosion of a {@link ServerWorld} that is unloaded
+	 * @param level  the level
+	 */
+	public static void unload(ServerWorld level) {
+		REPLAYS.remove(level);
+	}
+
+	/**
+	 * Forgets the destroyed blocks of explosions sent more than {@link ExplosionReplay#LIFETIME} ticks ago
+	 * @param level  the level of this ExplosionReplay
+	 */
+	public void tick(ServerWorld level) {
+		long tick = level.getTime();
+		while(!sent.isEmpty() && tick - sent.get(sent.firstIntKey()).tick > LIFETIME) {
+			sent.removeFirst();
+		}
+	}
+
+	/**
+	 * Gets every player tracking a chunk that contains destroyed blocks
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 * @return the players
+	 */
+	static Set<ServerPlayerEntity> getPlayers(ServerWorld level, ExplosionBlockSet blocks) {
+		Set<ServerPlayerEntity> players = new HashSet<>();
+		long lastChunk = Long.MIN_VALUE;
+		for(long key : blocks.getSectionKeys()) {
+			long chunk = ChunkPos.toLong(ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackZ(key));
+			if(chunk != lastChunk) {
+				players.addAll(PlayerLookup.tracking(level, new ChunkPos(chunk)));
+				lastChunk = chunk;
+			}
+		}
+		return players;
+	}
+
+	/**
+	 * Creates the packet of an explosion, hashing the sections around its crater after sending their pending block changes.
+	 * @implNote must be used before any block of the explosion is destroyed
+	 * @param level  the level
+	 * @param pos  the center position the crater has been computed with
+	 * @param size  the size of the explosion
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the distribution of the length of the explosion vectors
+	 * @param isStrongExplosion  whether or not fluids are ignored in the explosion resistance calculation
+	 * @param engine  the {@link ExplosionEngine} of the explosion
+	 * @param seed  the seed the crater has been computed with
+	 * @param settings  the {@link ExplosionSettings} of the explosion
+	 * @param blocks  the destroyed blocks
+	 * @return the {@link ExplosionReplayS2CPacket}
+	 */
+	ExplosionReplayS2CPacket createPacket(ServerWorld level, Vec3d pos, int size, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, ExplosionEngine engine, long seed, ExplosionSettings settings, ExplosionBlockSet blocks) {
+		flushChunks(level, blocks);
+		return new ExplosionReplayS2CPacket(nextId++, pos.x, pos.y, pos.z, size, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, engine, seed,
+				settings.performantExplosion, settings.performanceFactor, hashSections(level, blocks));
+	}
+
+	/**
+	 * Sends the packet of an explosion to the players and remembers its destroyed blocks in case a player can not replay it
+	 * @param level  the level
+	 * @param packet  the packet created by {@link ExplosionReplay#createPacket}
+	 * @param blocks  the destroyed blocks
+	 * @param players  the players tracking the destroyed blocks
+	 */
+	void send(ServerWorld level, ExplosionReplayS2CPacket packet, ExplosionBlockSet blocks, Set<ServerPlayerEntity> players) {
+		sent.put(packet.id, new SentReplay(blocks.copy(), level.getTime()));
+		ExplosionNetworkAggregator.get(level).flush(level);
+		for(ServerPlayerEntity player : players) {
+			LuckyTNTLib.RH.sendS2CPacket(player, packet);
+		}
+	}
+
+	/**
+	 * Replays an explosion on the logical client side if the sections around the crater it computes have the same hash as on the server
+	 * @param level  the level of the client
+	 * @param packet  the received packet
+	 * @return whether or not the explosion could be replayed
+	 */
+	public static boolean replay(World level, ExplosionReplayS2CPacket packet) {
+		ExplosionSettings settings = ExplosionSettings.current();
+		if(settings.performantExplosion != packet.sphere || settings.performanceFactor != packet.factor) {
+			return false;
+		}
+		ImprovedExplosion explosion = new ImprovedExplosion(level, new Vec3d(packet.x, packet.y, packet.z), packet.size);
+		explosion.setEngine(packet.engine);
+		explosion.setSeed(packet.seed);
+		return explosion.replayBlockExplosion(packet.xzStrength, packet.yStrength, packet.resistanceImpact, packet.randomVecLength, packet.isStrongExplosion, packet.hash);
+	}
+
+	/**
+	 * Sends the destroyed blocks of an explosion to a player that could not replay it.
+	 * Only the sections of the chunks the player tracks are sent, in case the player has changed worlds in the meantime.
+	 * @param player  the player
+	 * @param id  the id of the {@link ExplosionReplayS2CPacket}
+	 */
+	public static void resend(ServerPlayerEntity player, int id) {
+		ServerWorld level = player.getServerWorld();
+		ExplosionReplay replay = REPLAYS.get(level);
+		SentReplay sent = replay == null ? null : replay.sent.get(id);
+		if(sent == null) {
+			return;
+		}
+		long[] keys = ExplosionSectionDeltas.getSectionsPerPlayer(level, sent.blocks).get(player);
+		if(keys != null) {
+			ExplosionSectionDeltas.send(level, sent.blocks, player, keys);
+		}
+	}
+
+	/**
+	 * Sends the block changes made through the level that are still pending in the chunks of the destroyed blocks and in the chunks right next to them.
+	 * These are usually only sent once the chunks are ticked during the next tick.
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 */
+	private static void flushChunks(ServerWorld level, ExplosionBlockSet blocks) {
+		LongOpenHashSet chunks = new LongOpenHashSet();
+		for(long key : blocks.getSectionKeys()) {
+			int chunkX = ChunkSectionPos.unpackX(key);
+			int chunkZ = ChunkSectionPos.unpackZ(key);
+			for(int offX = -1; offX <= 1; offX++) {
+				for(int offZ = -1; offZ <= 1; offZ++) {
+					chunks.add(ChunkPos.toLong(chunkX + offX, chunkZ + offZ));
+				}
+			}
+		}
+		ThreadedAnvilChunkStorageAccessor storage = (ThreadedAnvilChunkStorageAccessor)level.getChunkManager().threadedAnvilChunkStorage;
+		for(long chunkPos : chunks) {
+			WorldChunk chunk = level.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos));
+			ChunkHolder holder = storage.invokeGetChunkHolder(chunkPos);
+			if(chunk != null && holder != null) {
+				holder.flushUpdates(chunk);
+			}
+		}
+	}
+
+	/**
+	 * Hashes the sections containing destroyed blocks and the sections right next to them, which covers the blocks a vector passes right before it ends.
+	 * Chunks that are not loaded are never loaded for this, they have a hash of their own instead.
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 * @return the hash
+	 */
+	static long hashSections(World level, ExplosionBlockSet blocks) {
+		LongOpenHashSet keys = new LongOpenHashSet();
+		for(long key : blocks.getSectionKeys()) {
+			int sectionX = ChunkSectionPos.unpackX(key);
+			int sectionY = ChunkSectionPos.unpackY(key);
+			int sectionZ = ChunkSectionPos.unpackZ(key);
+			for(int offX = -1; offX <= 1; offX++) {
+				for(int offY = -1; offY <= 1; offY++) {
+					for(int offZ = -1; offZ <= 1; offZ++) {
+						keys.add(ChunkSectionPos.asLong(sectionX + offX, sectionY + offY, sectionZ + offZ));
+					}
+				}
+			}
+		}
+		long[] sorted = keys.toLongArray();
+		Arrays.sort(sorted);
+		long hash = sorted.length;
+		for(long key : sorted) {
+			hash = HashCommon.mix(hash + key);
+			hash = HashCommon.mix(hash + getSectionHash(level, key));
+		}
+		return hash;
+	}
+
+	/**
+	 * Gets the hash of a single section
+	 * @param level  the level
+	 * @param key  the section key as encoded by {@link ChunkSectionPos#asLong(int, int, int)}
+	 * @return the hash of the section, 0 if it is outside of the height limit or {@link ExplosionReplay#UNLOADED_HASH} if its chunk is not loaded
+	 */
+	private static int getSectionHash(World level, long key) {
+		int index = level.sectionCoordToIndex(ChunkSectionPos.unpackY(key));
+		if(index < 0 || index >= level.countVerticalSections()) {
+			return 0;
+		}
+		int chunkX = ChunkSectionPos.unpackX(key);
+		int chunkZ = ChunkSectionPos.unpackZ(key);
+		if(!level.getChunkManager().isChunkLoaded(chunkX, chunkZ)) {
+			return UNLOADED_HASH;
+		}
+		return ((LuckyTNTChunkSectionExtension)level.getChunk(chunkX, chunkZ).getSection(index)).getExplosionHash();
+	}
+
+	/**
+	 * The destroyed blocks of an explosion that has been sent to be replayed
+	 */
+	private static class SentReplay {
+
+		private final ExplosionBlockSet blocks;
+		private final long tick;
+
+		private SentReplay(ExplosionBlockSet blocks, long tick) {
+			this.blocks = blocks;
+			this.tick = tick;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package luckytntlib.util.explosions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import luckytntlib.LuckyTNTLib;
+import luckytntlib.network.ExplosionSectionDeltaS2CPacket;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * ExplosionSectionDeltas sends the blocks destroyed by an explosion to the clients as {@link ExplosionSectionDeltaS2CPacket}s 
+ * instead of letting every block be sent on its own.
+ * Every player only gets the sections of the chunks it tracks, split into packets of at most {@link ExplosionSectionDeltas#MAX_SECTIONS} sections.
+ * Blocks destroyed during a tick are usually collected by the {@link ExplosionNetworkAggregator} first.
+ */
+class ExplosionSectionDeltas {
+
+	static final int MAX_SECTIONS = 1024;
+
+	private ExplosionSectionDeltas() {
+	}
+
+	/**
+	 * Gets the sections of destroyed blocks every player has to know about, which are the sections of the chunks the player tracks.
+	 * Players outside the view distance of all chunks are left out.
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 * @return the keys of the sections per player
+	 */
+	static Map<ServerPlayerEntity, long[]> getSectionsPerPlayer(ServerWorld level, ExplosionBlockSet blocks) {
+		Map<ServerPlayerEntity, LongArrayList> sections = new HashMap<>();
+		long[] keys = blocks.getSectionKeys();
+		int start = 0;
+		while(start < keys.length) {
+			int chunkX = ChunkSectionPos.unpackX(keys[start]);
+			int chunkZ = ChunkSectionPos.unpackZ(keys[start]);
+			int end = start + 1;
+			while(end < keys.length && ChunkSectionPos.unpackX(keys[end]) == chunkX && ChunkSectionPos.unpackZ(keys[end]) == chunkZ) {
+				end++;
+			}
+			for(ServerPlayerEntity player : PlayerLookup.tracking(level, new ChunkPos(chunkX, chunkZ))) {
+				LongArrayList keysOfPlayer = sections.computeIfAbsent(player, key -> new LongArrayList());
+				keysOfPlayer.addElements(keysOfPlayer.size(), keys, start, end - start);
+			}
+			start = end;
+		}
+		Map<ServerPlayerEntity, long[]> sectionsPerPlayer = new HashMap<>();
+		sections.forEach((player, keysOfPlayer) -> sectionsPerPlayer.put(player, keysOfPlayer.toLongArray()));
+		return sectionsPerPlayer;
+	}
+
+	/**
+	 * Sends sections of destroyed blocks to a single player
+	 * @param level  the level
+	 * @param blocks  the destroyed blocks
+	 * @param player  the player
+	 * @param keys  the keys of the sections that are sent
+	 */
+	static void send(ServerWorld level, ExplosionBlockSet blocks, ServerPlayerEntity player, long[] keys) {
+		for(int from = 0; from < keys.length; from += MAX_SECTIONS) {
+			long[] part = keys.length <= MAX_SECTIONS ? keys : Arrays.copyOfRange(keys, from, Math.min(from + MAX_SECTIONS, keys.length));
+			LuckyTNTLib.RH.sendS2CPacket(player, new ExplosionSectionDeltaS2CPacket(level, blocks, part));
+		}
+	}
+}
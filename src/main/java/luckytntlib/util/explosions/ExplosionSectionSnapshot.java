@@ -0,0 +1,185 @@
+package luckytntlib.util.explosions;
+
+import org.jetbrains.annotations.Nullable;
+
+import luckytntlib.util.LuckyTNTChunkSectionExtension;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * ExplosionSectionSnapshot holds the block states of every {@link ChunkSection} within the reach of an {@link ImprovedExplosion} in a dense array.
+ * The sections are resolved up front on the thread that ticks the level, after that the snapshot is never modified
+ * and can therefore be read by multiple threads at once.
+ * <p>
+ * A snapshot either references the block states of the live sections, which is only safe while the level is not ticking,
+ * or copies them, in which case it can be read while the level keeps changing and be checked for changes later on.
+ * Positions outside of the reach of the explosion or outside of the height limit are read as void air.
+ * Chunks that are not loaded are never loaded for a snapshot, their positions are read as barriers instead, which no vector can pass.
+ * Summaries are computed when they are first needed and then kept, a snapshot is always used with the same resistance table.
+ * Worker threads racing to compute a summary at worst compute it twice or see no summary, which only means that a section is not skipped.
+ */
+public class ExplosionSectionSnapshot implements ExplosionBlockReader {
+	
+	private static final BlockState VOID_AIR = Blocks.VOID_AIR.getDefaultState();
+	private static final BlockState UNLOADED = Blocks.BARRIER.getDefaultState();
+	
+	private final int minSectionX, minSectionY, minSectionZ;
+	private final int sizeX, sizeY, sizeZ;
+	private final PalettedContainer<BlockState>[] blockStates;
+	private final ExplosionSectionSummary[] summaries;
+	private final boolean[] summarized;
+	private final boolean[] unloaded;
+	@Nullable private final ChunkSection[] sources;
+	@Nullable private final int[] modificationCounts;
+	
+	@SuppressWarnings("unchecked")
+	private ExplosionSectionSnapshot(int minSectionX, int minSectionY, int minSectionZ, int sizeX, int sizeY, int sizeZ, boolean copy) {
+		this.minSectionX = minSectionX;
+		this.minSectionY = minSectionY;
+		this.minSectionZ = minSectionZ;
+		this.sizeX = sizeX;
+		this.sizeY = sizeY;
+		this.sizeZ = sizeZ;
+		blockStates = new PalettedContainer[sizeX * sizeY * sizeZ];
+		summaries = new ExplosionSectionSummary[blockStates.length];
+		summarized = new boolean[blockStates.length];
+		unloaded = new boolean[sizeX * sizeZ];
+		sources = copy ? new ChunkSection[blockStates.length] : null;
+		modificationCounts = copy ? new int[blockStates.length] : null;
+	}
+	
+	/**
+	 * Resolves all sections of the loaded chunks whose horizontal distance to the center is within the radius.
+	 * @implNote must only be used on the thread that ticks the given level
+	 * @param level  the level
+	 * @param x  the x center position
+	 * @param y  the y center position
+	 * @param z  the z center position
+	 * @param radius  the maximum distance a vector of the explosion can travel
+	 * @param copy  whether or not the block states are copied, so that the snapshot can be read while the level keeps ticking
+	 * @return the new ExplosionSectionSnapshot
+	 */
+	public static ExplosionSectionSnapshot create(World level, double x, double y, double z, double radius, boolean copy) {
+		ExplosionBlockAccess access = ExplosionBlockAccess.get(level);
+		int minSectionX = ChunkSectionPos.getSectionCoord(x - radius);
+		int minSectionZ = ChunkSectionPos.getSectionCoord(z - radius);
+		int maxSectionX = ChunkSectionPos.getSectionCoord(x + radius);
+		int maxSectionZ = ChunkSectionPos.getSectionCoord(z + radius);
+		int minSectionY = Math.max(ChunkSectionPos.getSectionCoord(y - radius), level.getBottomSectionCoord());
+		int maxSectionY = Math.min(ChunkSectionPos.getSectionCoord(y + radius), level.getTopSectionCoord() - 1);
+		ExplosionSectionSnapshot snapshot = new ExplosionSectionSnapshot(minSectionX, minSectionY, minSectionZ, maxSectionX - minSectionX + 1, Math.max(maxSectionY - minSectionY + 1, 0), maxSectionZ - minSectionZ + 1, copy);
+		double radiusSq = radius * radius;
+		for(int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+			for(int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+				double distanceX = Math.max(0, Math.max((sectionX << 4) - x, x - ((sectionX << 4) + 16)));
+				double distanceZ = Math.max(0, Math.max((sectionZ << 4) - z, z - ((sectionZ << 4) + 16)));
+				if(distanceX * distanceX + distanceZ * distanceZ > radiusSq) {
+					continue;
+				}
+				if(!level.getChunkManager().isChunkLoaded(sectionX, sectionZ)) {
+					snapshot.unloaded[(sectionZ - minSectionZ) * snapshot.sizeX + (sectionX - minSectionX)] = true;
+					continue;
+				}
+				for(int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+					ChunkSection section = access.getSection(sectionX, sectionY, sectionZ);
+					if(section == null) {
+						continue;
+					}
+					int index = snapshot.index(sectionX, sectionY, sectionZ);
+					if(copy) {
+						snapshot.blockStates[index] = section.getBlockStateContainer().copy();
+						snapshot.sources[index] = section;
+						snapshot.modificationCounts[index] = ((LuckyTNTChunkSectionExtension)section).getModificationCount();
+					} else {
+						snapshot.blockStates[index] = section.getBlockStateContainer();
+					}
+				}
+			}
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Checks whether the sections a copied snapshot has been created from are still the same and have not been changed since
+	 * and whether the chunks that were not loaded back then are still not loaded.
+	 * @implNote must only be used on the thread that ticks the given level
+	 * @param level  the level this snapshot has been created in
+	 * @return true if nothing has changed or if this snapshot references the live sections anyway
+	 */
+	public boolean isUpToDate(World level) {
+		if(sources == null) {
+			return true;
+		}
+		for(int column = 0; column < unloaded.length; column++) {
+			if(unloaded[column] && level.getChunkManager().isChunkLoaded(minSectionX + column % sizeX, minSectionZ + column / sizeX)) {
+				return false;
+			}
+		}
+		ExplosionBlockAccess access = ExplosionBlockAccess.get(level);
+		for(int index = 0; index < sources.length; index++) {
+			ChunkSection source = sources[index];
+			if(source == null) {
+				continue;
+			}
+			int sectionX = minSectionX + index % sizeX;
+			int sectionZ = minSectionZ + index / sizeX % sizeZ;
+			int sectionY = minSectionY + index / (sizeX * sizeZ);
+			if(access.getSection(sectionX, sectionY, sectionZ) != source || ((LuckyTNTChunkSectionExtension)source).getModificationCount() != modificationCounts[index]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	@Nullable
+	public PalettedContainer<BlockState> getBlockStates(int sectionX, int sectionY, int sectionZ) {
+		int offX = sectionX - minSectionX;
+		int offY = sectionY - minSectionY;
+		int offZ = sectionZ - minSectionZ;
+		if(offX < 0 || offY < 0 || offZ < 0 || offX >= sizeX || offY >= sizeY || offZ >= sizeZ) {
+			return null;
+		}
+		return blockStates[(offY * sizeZ + offZ) * sizeX + offX];
+	}
+	
+	@Override
+	@Nullable
+	public ExplosionSectionSummary getSummary(int sectionX, int sectionY, int sectionZ, float[] resistances) {
+		int offX = sectionX - minSectionX;
+		int offY = sectionY - minSectionY;
+		int offZ = sectionZ - minSectionZ;
+		if(offX < 0 || offY < 0 || offZ < 0 || offX >= sizeX || offY >= sizeY || offZ >= sizeZ) {
+			return ExplosionSectionSummary.of(null, resistances);
+		}
+		int index = (offY * sizeZ + offZ) * sizeX + offX;
+		if(!summarized[index]) {
+			summaries[index] = unloaded[offZ * sizeX + offX] ? ExplosionSectionSummary.filledWith(UNLOADED, resistances) : ExplosionSectionSummary.of(blockStates[index], resistances);
+			summarized[index] = true;
+		}
+		return summaries[index];
+	}
+	
+	@Override
+	public BlockState getBlockState(int x, int y, int z) {
+		int offX = ChunkSectionPos.getSectionCoord(x) - minSectionX;
+		int offY = ChunkSectionPos.getSectionCoord(y) - minSectionY;
+		int offZ = ChunkSectionPos.getSectionCoord(z) - minSectionZ;
+		if(offX < 0 || offY < 0 || offZ < 0 || offX >= sizeX || offY >= sizeY || offZ >= sizeZ) {
+			return VOID_AIR;
+		}
+		if(unloaded[offZ * sizeX + offX]) {
+			return UNLOADED;
+		}
+		PalettedContainer<BlockState> container = blockStates[(offY * sizeZ + offZ) * sizeX + offX];
+		return container == null ? VOID_AIR : container.get(x & 15, y & 15, z & 15);
+	}
+	
+	private int index(int sectionX, int sectionY, int sectionZ) {
+		return ((sectionY - minSectionY) * sizeZ + (sectionZ - minSectionZ)) * sizeX + (sectionX - minSectionX);
+	}
+}
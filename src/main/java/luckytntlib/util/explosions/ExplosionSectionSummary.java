@@ -0,0 +1,112 @@
+package luckytntlib.util.explosions;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * ExplosionSectionSummary describes the block states of a {@link ChunkSection} as a whole for a {@link BlastResistanceTable}:
+ * the smallest and the largest resistance, the smallest resistance of anything but air, whether or not there are fluids and whether or not there is anything but air.
+ * <p>
+ * A summary is computed from the palette of the section and never from its blocks, which makes it cheap to compute.
+ * Palettes may still contain states that are no longer used, so a summary may be more pessimistic than the section, but never less.
+ */
+public class ExplosionSectionSummary {
+	
+	private static final BlockState VOID_AIR = Blocks.VOID_AIR.getDefaultState();
+	
+	final float minResistance;
+	final float maxResistance;
+	final float minSolidResistance;
+	final boolean hasFluid;
+	final boolean onlyAir;
+	
+	private ExplosionSectionSummary(float minResistance, float maxResistance, float minSolidResistance, boolean hasFluid, boolean onlyAir) {
+		this.minResistance = minResistance;
+		this.maxResistance = maxResistance;
+		this.minSolidResistance = minSolidResistance;
+		this.hasFluid = hasFluid;
+		this.onlyAir = onlyAir;
+	}
+	
+	/**
+	 * Summarizes the palette of a section
+	 * @param states  the block states of the section or null for a section outside of the height limit, which counts as void air
+	 * @param resistances  the {@link BlastResistanceTable} the resistances are taken from
+	 * @return the ExplosionSectionSummary or null if the palette can not be iterated, which is the case for sections with a lot of different states
+	 */
+	@Nullable
+	public static ExplosionSectionSummary of(@Nullable PalettedContainer<BlockState> states, float[] resistances) {
+		if(states == null) {
+			float resistance = resistances[Block.getRawIdFromState(VOID_AIR)];
+			return new ExplosionSectionSummary(resistance, resistance, Float.POSITIVE_INFINITY, false, true);
+		}
+		float[] minMax = {Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+		boolean[] flags = {false, true};
+		boolean unknown = states.hasAny(state -> {
+			float resistance = resistances[Block.getRawIdFromState(state)];
+			minMax[0] = Math.min(minMax[0], resistance);
+			minMax[1] = Math.max(minMax[1], resistance);
+			if(!state.isAir()) {
+				minMax[2] = Math.min(minMax[2], resistance);
+			}
+			flags[0] |= !state.getFluidState().isEmpty();
+			flags[1] &= state.isAir();
+			return false;
+		});
+		if(unknown || minMax[0] > minMax[1]) {
+			return null;
+		}
+		return new ExplosionSectionSummary(minMax[0], minMax[1], minMax[2], flags[0], flags[1]);
+	}
+	
+	/**
+	 * Summarizes a section that is filled with a single block state, for instance a section that stands in for a chunk that is not loaded
+	 * @param state  the block state filling the section
+	 * @param resistances  the {@link BlastResistanceTable} the resistances are taken from
+	 * @return the ExplosionSectionSummary
+	 */
+	public static ExplosionSectionSummary filledWith(BlockState state, float[] resistances) {
+		float resistance = resistances[Block.getRawIdFromState(state)];
+		return new ExplosionSectionSummary(resistance, resistance, state.isAir() ? Float.POSITIVE_INFINITY : resistance, !state.getFluidState().isEmpty(), state.isAir());
+	}
+	
+	/**
+	 * @return the smallest resistance of any state in the section, as stored in the {@link BlastResistanceTable}
+	 */
+	public float getMinResistance() {
+		return minResistance;
+	}
+	
+	/**
+	 * @return the largest resistance of any state in the section, as stored in the {@link BlastResistanceTable}
+	 */
+	public float getMaxResistance() {
+		return maxResistance;
+	}
+	
+	/**
+	 * @return the smallest resistance of any state in the section that is not air or infinity if there is nothing but air
+	 */
+	public float getMinSolidResistance() {
+		return minSolidResistance;
+	}
+	
+	/**
+	 * @return whether or not any state in the section contains a fluid
+	 */
+	public boolean hasFluid() {
+		return hasFluid;
+	}
+	
+	/**
+	 * @return whether or not the section contains nothing but air
+	 */
+	public boolean isOnlyAir() {
+		return onlyAir;
+	}
+}
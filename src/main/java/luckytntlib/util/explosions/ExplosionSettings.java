@@ -0,0 +1,51 @@
+package luckytntlib.util.explosions;
+
+import luckytntlib.config.LuckyTNTLibConfigValues;
+import luckytntlib.config.common.Config;
+
+/**
+ * ExplosionSettings is an immutable snapshot of the config values used by {@link ImprovedExplosion}s.
+ * Every explosion captures the snapshot once when it is created, so config changes,
+ * for instance ones sent by the server while the explosion is being calculated, do not change its parameters halfway through.
+ * <p>
+ * A snapshot is only created again once the {@link Config#getVersion()} has changed.
+ */
+public final class ExplosionSettings {
+
+	private static volatile ExplosionSettings current;
+
+	public final int version;
+	public final boolean performantExplosion;
+	public final double performanceFactor;
+	public final int threads;
+	public final int parallelThreshold;
+
+	private ExplosionSettings(int version) {
+		this.version = version;
+		this.performantExplosion = LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.getBoolean();
+		this.performanceFactor = LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.getDouble();
+		this.threads = LuckyTNTLibConfigValues.EXPLOSION_THREADS.getInt();
+		this.parallelThreshold = LuckyTNTLibConfigValues.PARALLEL_EXPLOSION_THRESHOLD.getInt();
+	}
+
+	/**
+	 * Gets the snapshot of the current config values, creating a new one if any value has changed since the last one
+	 * @return the current ExplosionSettings
+	 */
+	public static ExplosionSettings current() {
+		int version = Config.getVersion();
+		ExplosionSettings settings = current;
+		if(settings == null || settings.version != version) {
+			current = settings = new ExplosionSettings(version);
+		}
+		return settings;
+	}
+
+	/**
+	 * Gets the amount of threads explosions may use, resolving 0 to one thread less than there are processors.
+	 * @return the configured amount of worker threads
+	 */
+	public int getParallelism() {
+		return threads > 0 ? threads : Runtime.getRuntime().availableProcessors() - 1;
+	}
+}
@@ -0,0 +1,38 @@
+package luckytntlib.util.explosions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ExplosionWorkers owns the {@link ForkJoinPool} used by {@link ImprovedExplosion}s to shoot their vectors in parallel.
+ * The pool is created lazily and recreated whenever the amount of worker threads given by the {@link ExplosionSettings} changes.
+ */
+class ExplosionWorkers {
+	
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static ForkJoinPool pool;
+	
+	private ExplosionWorkers() {
+	}
+	
+	/**
+	 * Gets the pool for the given amount of worker threads
+	 * @param parallelism  the amount of worker threads
+	 * @return the {@link ForkJoinPool}
+	 */
+	static synchronized ForkJoinPool getPool(int parallelism) {
+		if(pool == null || pool.getParallelism() != parallelism) {
+			if(pool != null) {
+				pool.shutdown();
+			}
+			pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+				thread.setName("LuckyTNTLib Explosion Worker " + THREAD_COUNTER.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}, null, false);
+		}
+		return pool;
+	}
+}
@@ -1,16 +1,24 @@
 package luckytntlib.util.explosions;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import luckytntlib.config.LuckyTNTLibConfigValues;
+import luckytntlib.network.ExplosionReplayS2CPacket;
 import luckytntlib.util.IExplosiveEntity;
 import net.minecraft.block.AbstractFireBlock;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.enchantment.ProtectionEnchantment;
@@ -18,12 +26,14 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.fluid.FluidState;
 import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundEvent;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.world.explosion.EntityExplosionBehavior;
@@ -44,16 +54,32 @@ public class ImprovedExplosion extends Explosion {
 	public final int size;
 	public final ExplosionBehavior damageCalculator;
 	public final DamageSource damageSource;
-	List<Integer> affectedBlocks = new ArrayList<>();
+	public final ExplosionSettings settings;
+	private long seed;
+	private SplittableRandom random;
+	ExplosionBlockSet affectedBlocks = new ExplosionBlockSet();
+	private ExplosionEngine engine = ExplosionEngine.RAYCAST;
+	private ExplosionBlockAccess blockAccess;
+	@Nullable private float[] resistances;
+	@Nullable private ExplosionCellMemo memo;
+	private boolean defaultDestruction;
+	private float destroyableResistance;
+	@Nullable private ExplosionPrecomputation precomputation;
+	@Nullable private ExplosionPrecomputation usedPrecomputation;
+	@Nullable private IBlockExplosionCondition bound;
 	
+	private static final float VOXEL_REFERENCE_STEP = 0.3f;
+	private static final float VOXEL_STEP_SCALE = (VOXEL_REFERENCE_STEP * 1.5f - 0.225f) / VOXEL_REFERENCE_STEP;
+	private static final int HIERARCHICAL_COARSE_SPACING = 8;
+	private static final float HIERARCHICAL_TOLERANCE = 0.25f;
+	private static final int BATCH_LANES = 8;
 	private static ImprovedExplosion dummyExplosion;
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param position  the center position of the explosion
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */
 	public ImprovedExplosion(World level, Vec3d position, int size) {
 		this(level, null, null, position, size);
@@ -61,11 +87,10 @@ public class ImprovedExplosion extends Explosion {
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param source  the DamageSource this explosion uses
 	 * @param position  the center position of the explosion
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */
 	public ImprovedExplosion(World level, @Nullable DamageSource source, Vec3d position, int size) {
 		this(level, null, source, position, size);
@@ -73,11 +98,10 @@ public class ImprovedExplosion extends Explosion {
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param entity  the entity not affected by this explosion. Should be the entity causing the explosion and also an IExplosiveEntity
 	 * @param position  the center position of the explosion
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */	
 	public ImprovedExplosion(World level, @Nullable Entity explodingEntity, Vec3d position, int size) {
 		this(level, explodingEntity, null, position.x, position.y, position.z, size);
@@ -85,12 +109,11 @@ public class ImprovedExplosion extends Explosion {
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param entity  the entity not affected by this explosion. Should be the entity causing the explosion and also an IExplosiveEntity
 	 * @param source  the DamageSource this explosion uses
 	 * @param position  the center position of the explosion
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */	
 	public ImprovedExplosion(World level, @Nullable Entity explodingEntity, @Nullable DamageSource source, Vec3d position, int size) {
 		this(level, explodingEntity, source, position.x, position.y, position.z, size);
@@ -98,13 +121,12 @@ public class ImprovedExplosion extends Explosion {
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param entity  the entity not affected by this explosion. Should be the entity causing the explosion and also an IExplosiveEntity
 	 * @param x  the x center position
 	 * @param y  the y center position
 	 * @param z  the z center position
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */	
 	public ImprovedExplosion(World level, @Nullable Entity explodingEntity, double x, double y, double z, int size) {
 		this(level, explodingEntity, null, x, y, z, size);
@@ -112,14 +134,13 @@ public class ImprovedExplosion extends Explosion {
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param entity  the entity not affected by this explosion. Should be the entity causing the explosion and also an IExplosiveEntity
 	 * @param source  the DamageSource this explosion uses
 	 * @param x  the x center position
 	 * @param y  the y center position
 	 * @param z  the z center position
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */	
 	public ImprovedExplosion(World level, @Nullable Entity explodingEntity, @Nullable DamageSource source, double x, double y, double z, int size) {
 		super(level, explodingEntity, source, null, x, y, z, size, false, DestructionType.KEEP, ParticleTypes.EXPLOSION, ParticleTypes.EXPLOSION_EMITTER, SoundEvents.ENTITY_GENERIC_EXPLODE);
@@ -130,11 +151,13 @@ public class ImprovedExplosion extends Explosion {
 		this.size = size;
 		this.damageSource = source == null ? level.getDamageSources().explosion(this) : source;
 		damageCalculator = explodingEntity == null ? new ExplosionBehavior() : new EntityExplosionBehavior(explodingEntity);
+		settings = ExplosionSettings.current();
+		seed = createSeed(level, x, y, z);
+		random = new SplittableRandom(seed);
 	}
 	
 	/**
 	 * Creates a new ImprovedExplosion
-	 * @implNote size must not be greater than 511 in most cases. See the respective doBlockExplosion method
 	 * @param level  the level
 	 * @param entity  the entity not affected by this explosion. Should be the entity causing the explosion and also an IExplosiveEntity
 	 * @param source  the DamageSource this explosion uses
@@ -142,7 +165,7 @@ public class ImprovedExplosion extends Explosion {
 	 * @param x  the x center position
 	 * @param y  the y center position
 	 * @param z  the z center position
-	 * @param size  the rough size of the explosion, which must not be greater than 511 in most cases
+	 * @param size  the rough size of the explosion
 	 */	
 	public ImprovedExplosion(World level, @Nullable Entity explodingEntity, @Nullable DamageSource source, SoundEvent sound, double x, double y, double z, int size) {
 		super(level, explodingEntity, source, null, x, y, z, size, false, DestructionType.KEEP, ParticleTypes.EXPLOSION, ParticleTypes.EXPLOSION_EMITTER, sound);
@@ -153,13 +176,15 @@ public class ImprovedExplosion extends Explosion {
 		this.size = size;
 		this.damageSource = source == null ? level.getDamageSources().explosion(this) : source;
 		damageCalculator = explodingEntity == null ? new ExplosionBehavior() : new EntityExplosionBehavior(explodingEntity);
+		settings = ExplosionSettings.current();
+		seed = createSeed(level, x, y, z);
+		random = new SplittableRandom(seed);
 	}
 	
 	/**
-	 * Gets all blocks in an area calculated by shooting vectors to the borders of a cube determined by the {@link ImprovedExplosion#size} and destroys them.
-	 * If any of the relative coordinates of the affected block exceed 511 they will be clamped to that value.
-	 * Encodes block positions into a singular int, increasing performance.
-	 * The shape the vectors orient to can either be a sphere or a cube, depending on the players config.
+	 * Gets all blocks in an area calculated by shooting vectors in all directions with a reach determined by the {@link ImprovedExplosion#size} and destroys them.
+	 * Block positions are stored in per-section bitsets, so there is no limit to the size of the explosion.
+	 * The vectors either orient to the shell of a sphere or are spread evenly over all directions, depending on the players config.
 	 * @param xzStrength  a multiplier to the x and z vector addition, which makes the explosion more powerful. It should not be set higher than 1.2, otherwise blocks might be skipped
 	 * @param yStrength  a multiplier to the y vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
@@ -167,69 +192,35 @@ public class ImprovedExplosion extends Explosion {
 	 * @param fire  whether or not the explosion should spawn fire afterwards
 	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation. Very useful for large explosions
 	 */
-	public void doBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion) {			
-		BlockPos posTNT = new BlockPos(floor(posX), floor(posY), floor(posZ));
-		Set<Integer> blocks = new HashSet<>();
-		for (int offX = -size; offX <= size; offX++) {
-			for (int offY = -size; offY <= size; offY++) {
-				for (int offZ = -size; offZ <= size; offZ++) {
-					double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
-					if (((int) distance == size && LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get()) || (!LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get() && (offX == -size || offX == size || offY == -size || offY == size || offZ == -size || offZ == size))) {
-						double xStep = offX / distance;
-						double yStep = offY / distance;
-						double zStep = offZ / distance;
-						float vecLength = size * (0.7f + (float) Math.random() * 0.6f * randomVecLength);
-						double blockX = posX;
-						double blockY = posY;
-						double blockZ = posZ;
-						for (float vecStep = 0; vecStep < vecLength; vecStep += LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * 1.5f - 0.225f) {
-							blockX += xStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							blockY += yStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * yStrength;
-							blockZ += zStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							BlockPos pos = new BlockPos((int)blockX, (int)blockY, (int)blockZ);
-							if (!level.isInBuildLimit(pos)) {
-								break;
-							}
-							BlockState blockState = level.getBlockState(pos);
-							FluidState fluidState = level.getFluidState(pos);
-							if (!(isStrongExplosion && !fluidState.isEmpty())) {
-								Optional<Float> explosionResistance = damageCalculator.getBlastResistance(this, level, pos, blockState, fluidState);
-								if (explosionResistance.isPresent()) {
-									vecLength -= (explosionResistance.get() + 0.3f) * 0.3f * resistanceImpact;
-								}
-								if (vecLength > 0 && damageCalculator.canDestroyBlock(this, level, pos, blockState, vecLength) && !blockState.isAir()) {
-									blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-								}
-							} else {
-								blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-							}
-						}
-					}
-				}
-			}
-		}
-		affectedBlocks.addAll(blocks);
-		for(int intPos : blocks) {
-			BlockPos pos = decodeBlockPos(intPos).add(posTNT);
-			level.getBlockState(pos).getBlock().onDestroyedByExplosion(level, pos, this);
-			level.setBlockState(pos, Blocks.AIR.getDefaultState(), 3);
-		}
-		if(fire) {
-			for(int intPos : blocks) {
-				BlockPos pos = decodeBlockPos(intPos).add(posTNT);
-				if(Math.random() > 0.75f && level.getBlockState(pos).isAir() && level.getBlockState(pos.down()).isOpaqueFullCube(level, pos)) {
-					level.setBlockState(pos, AbstractFireBlock.getState(level, pos));
-				}
-			}
+	public void doBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion) {
+		explode(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null, true, blocks -> destroyBlocks(blocks, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion), fire);
+	}
+	
+	/**
+	 * Gets all blocks in an area calculated by shooting vectors in all directions with a reach determined by the {@link ImprovedExplosion#size} 
+	 * and hands them to the {@link ExplosionJobManager} of the level, which destroys them over the next ticks without exceeding its time budget.
+	 * Unfinished explosions are saved with the level and continue after a restart.
+	 * On the logical client side this behaves like {@link ImprovedExplosion#doBlockExplosion(float, float, float, float, boolean, boolean)}.
+	 * @param xzStrength  a multiplier to the x and z vector addition, which makes the explosion more powerful. It should not be set higher than 1.2, otherwise blocks might be skipped
+	 * @param yStrength  a multiplier to the y vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be. Large explosions should have a value less than 1
+	 * @param fire  whether or not the explosion should spawn fire afterwards
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation. Very useful for large explosions
+	 */
+	public void doIncrementalBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion) {
+		if(!(level instanceof ServerWorld serverLevel)) {
+			doBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+			return;
 		}
+		explode(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null, true, blocks -> ExplosionJobManager.get(serverLevel).add(new ExplosionJob(posX, posY, posZ, size, getEntity(), blocks.copy(), fire, random.nextLong())), false);
 	}
 	
 	/**
-	 * Gets all blocks in an area calculated by shooting vectors to the borders of a cube determined by the {@link ImprovedExplosion#size} 
+	 * Gets all blocks in an area calculated by shooting vectors in all directions with a reach determined by the {@link ImprovedExplosion#size} 
 	 * and does to them whatever specified in the {@link IForEachBlockExplosionEffect}. 
-	 * If any of the relative coordinates of the affected block exceed 511 they will be clamped to that value.
-	 * Encodes block positions into a singular int, increasing performance.
-	 * The shape the vectors orient to can either be a sphere or a cube, depending on the players config.
+	 * Block positions are stored in per-section bitsets, so there is no limit to the size of the explosion.
+	 * The vectors either orient to the shell of a sphere or are spread evenly over all directions, depending on the players config.
 	 * @param xzStrength  a multiplier to the x and z vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param yStrength  a multiplier to the y vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
@@ -239,122 +230,28 @@ public class ImprovedExplosion extends Explosion {
 	 * @param blockEffect  determines what should happen to the blocks gotten by this explosion
 	 */
 	public void doBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, IForEachBlockExplosionEffect blockEffect) {
-		BlockPos posTNT = new BlockPos(floor(posX), floor(posY), floor(posZ));
-		Set<Integer> blocks = new HashSet<>();
-		for(int offX = -size; offX <= size; offX++) {
-			for(int offY = -size; offY <= size; offY++) {
-				for(int offZ = -size; offZ <= size; offZ++) {
-					double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
-					if(((int)distance == size && LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get()) || (!LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get() && (offX == -size || offX == size || offY == -size || offY == size || offZ == -size || offZ == size))) {
-						double xStep = offX / distance;
-						double yStep = offY / distance;
-						double zStep = offZ / distance;
-						float vecLength = size * (0.7f + (float)Math.random() * 0.6f * randomVecLength);
-						double blockX = posX;
-						double blockY = posY;
-						double blockZ = posZ;
-						for(float vecStep = 0; vecStep < vecLength; vecStep += LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * 1.5f - 0.225f) {
-							blockX += xStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							blockY += yStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * yStrength;
-							blockZ += zStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							BlockPos pos = new BlockPos((int)blockX, (int)blockY, (int)blockZ);
-							if(!level.isInBuildLimit(pos)) {
-								break;
-							}
-							BlockState blockState = level.getBlockState(pos);
-							FluidState fluidState = level.getFluidState(pos);
-							if(!(isStrongExplosion && !fluidState.isEmpty())) {
-								Optional<Float> explosionResistance = damageCalculator.getBlastResistance(this, level, pos, blockState, fluidState);
-								if(explosionResistance.isPresent()) {
-									vecLength -= (explosionResistance.get() + 0.3f) * 0.3f * resistanceImpact;
-								}
-								if(vecLength > 0 && damageCalculator.canDestroyBlock(this, level, pos, blockState, vecLength) && !blockState.isAir()) {
-									blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-								}
-							}
-							else {
-								blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-							}
-						}
-					}
-				}
-			}
-		}
-		affectedBlocks.addAll(blocks);
-		for(int intPos : blocks) {
-			BlockPos pos = decodeBlockPos(intPos).add(posTNT);
-			double distance = Math.sqrt(pos.getSquaredDistance(posX, posY, posZ));
-			blockEffect.doBlockExplosion(level, pos, level.getBlockState(pos), distance);
-		}
+		doBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null, blockEffect);
 	}
 	
 	/**
-	 * Gets blocks in an area calculated by shooting vectors to the borders of a cube determined by the {@link ImprovedExplosion#size} if the {@link IBlockExplosionCondition} is met 
+	 * Gets blocks in an area calculated by shooting vectors in all directions with a reach determined by the {@link ImprovedExplosion#size} if the {@link IBlockExplosionCondition} is met 
 	 * and does to them whatever specified in the blockEffect.
-	 * If any of the relative coordinates of the affected block exceed 511 they will be clamped to that value.
-	 * Encodes block positions into a singular int, increasing performance.
-	 * The shape the vectors orient to can either be a sphere or a cube, depending on the players config.
+	 * Block positions are stored in per-section bitsets, so there is no limit to the size of the explosion.
+	 * The vectors either orient to the shell of a sphere or are spread evenly over all directions, depending on the players config.
 	 * @param xzStrength  a multiplier to the x and z vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param yStrength  a multiplier to the y vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
 	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be. Large explosions should have a value less than 1
 	 * @param fire  whether or not the explosion should spawn fire afterwards
 	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation. Very useful for large explosions
-	 * @param condition  the condition on which a block is added to the {@link Set} of blocks
+	 * @param condition  the condition on which a block is added to the affected blocks
 	 * @param blockEffect  determines what should happen to the blocks gotten by this explosion
 	 */
 	public void doBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, IBlockExplosionCondition condition, IForEachBlockExplosionEffect blockEffect) {
-		BlockPos posTNT = new BlockPos(floor(posX), floor(posY), floor(posZ));
-		Set<Integer> blocks = new HashSet<>();
-		for(int offX = -size; offX <= size; offX++) {
-			for(int offY = -size; offY <= size; offY++) {
-				for(int offZ = -size; offZ <= size; offZ++) {
-					double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
-					if(((int)distance == size && LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get()) || (!LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get() && (offX == -size || offX == size || offY == -size || offY == size || offZ == -size || offZ == size))) {
-						double xStep = offX / distance;
-						double yStep = offY / distance;
-						double zStep = offZ / distance;
-						float vecLength = size * (0.7f + (float)Math.random() * 0.6f * randomVecLength);
-						double blockX = posX;
-						double blockY = posY;
-						double blockZ = posZ;
-						for(float vecStep = 0; vecStep < vecLength; vecStep += LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * 1.5f - 0.225f) {
-							blockX += xStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							blockY += yStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * yStrength;
-							blockZ += zStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							BlockPos pos = new BlockPos((int)blockX, (int)blockY, (int)blockZ);
-							if(!level.isInBuildLimit(pos)) {
-								break;
-							}
-							BlockState blockState = level.getBlockState(pos);
-							FluidState fluidState = level.getFluidState(pos);
-							if(!(isStrongExplosion && !fluidState.isEmpty())) {
-								Optional<Float> explosionResistance = damageCalculator.getBlastResistance(this, level, pos, blockState, fluidState);
-								if(explosionResistance.isPresent()) {
-									vecLength -= (explosionResistance.get() + 0.3f) * 0.3f * resistanceImpact;
-								}
-								if(vecLength > 0 && damageCalculator.canDestroyBlock(this, level, pos, blockState, vecLength) && !blockState.isAir()) {
-									if(condition.conditionMet(level, pos, blockState, distance)) {
-										blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-									}
-								}
-							}
-							else {
-								if(condition.conditionMet(level, pos, blockState, distance)) {
-									blocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-		affectedBlocks.addAll(blocks);
-		for(int intPos : blocks) {
-			BlockPos pos = decodeBlockPos(intPos).add(posTNT);
+		explode(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, condition, true, blocks -> blocks.forEachBlockPos(pos -> {
 			double distance = Math.sqrt(pos.getSquaredDistance(posX, posY, posZ));
 			blockEffect.doBlockExplosion(level, pos, level.getBlockState(pos), distance);
-		}
+		}), false);
 	}
 	
 	/**
@@ -382,8 +279,7 @@ public class ImprovedExplosion extends Explosion {
 	}
 	
 	/**
-	 * Gets all blocks in an area calculated by shooting vectors to the borders of a cube determined by the {@link ImprovedExplosion#size} and destroys them.
-	 * Values of the relative coordinates can exceed 511, allowing for bigger explosions at the cost of more ram usage and slower explosion time.
+	 * Gets all blocks in an area calculated by shooting vectors in all directions with a reach determined by the {@link ImprovedExplosion#size} and destroys them.
 	 * @param xzStrength  a multiplier to the x and z vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param yStrength  a multiplier to the y vector addition, which makes the explosion more powerful. It should not be set to high, otherwise blocks might be skipped
 	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
@@ -393,64 +289,934 @@ public class ImprovedExplosion extends Explosion {
 	 * @param saveBlockPos  whether or not affected blocks should be saved to be used externally
 	 */
 	public void doOldBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, boolean isStrongExplosion, boolean saveBlockPos) {
-		Set<BlockPos> blocks = new HashSet<>();
-		for(int offX = -size; offX <= size; offX++) {
-			for(int offY = -size; offY <= size; offY++) {
-				for(int offZ = -size; offZ <= size; offZ++) {
-					double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
-					if(((int)distance == size && LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get()) || (!LuckyTNTLibConfigValues.PERFORMANT_EXPLOSION.get() && (offX == -size || offX == size || offY == -size || offY == size || offZ == -size || offZ == size))) {
-						double xStep = offX / distance;
-						double yStep = offY / distance;
-						double zStep = offZ / distance;
-						float vecLength = size * (0.7f + (float)Math.random() * 0.6f * randomVecLength);
-						double blockX = posX;
-						double blockY = posY;
-						double blockZ = posZ;
-						for(float vecStep = 0; vecStep < vecLength; vecStep += LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * 1.5f - 0.225f) {
-							blockX += xStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							blockY += yStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * yStrength;
-							blockZ += zStep * LuckyTNTLibConfigValues.EXPLOSION_PERFORMANCE_FACTOR.get() * xzStrength;
-							BlockPos pos = new BlockPos((int)blockX, (int)blockY, (int)blockZ);
-							if(!level.isInBuildLimit(pos)) {
-								break;
-							}
-							BlockState blockState = level.getBlockState(pos);
-							FluidState fluidState = level.getFluidState(pos);
-							if(!(isStrongExplosion && !fluidState.isEmpty())) {
-								Optional<Float> explosionResistance = damageCalculator.getBlastResistance(this, level, pos, blockState, fluidState);
-								if(explosionResistance.isPresent()) {
-									vecLength -= (explosionResistance.get() + 0.3f) * 0.3f * resistanceImpact;
-								}
-								if(vecLength > 0 && damageCalculator.canDestroyBlock(this, level, pos, blockState, vecLength) && !blockState.isAir()) {
-									blocks.add(pos);
-								}
-							}
-							else {
-								blocks.add(pos);
-							}
-						}
+		explode(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null, saveBlockPos, blocks -> blocks.forEachBlockPos(pos -> level.getBlockState(pos).getBlock().onDestroyedByExplosion(level, pos, this)), fire);
+	}
+	
+	/**
+	 * The single path every block explosion takes: the vectors are shot once by {@link ImprovedExplosion#collectBlocks}, 
+	 * the {@link IBlockExplosionCondition} decides which of the hit blocks are affected, and the {@link BlockApplier} decides what happens to them.
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param save  whether or not the affected blocks should be saved to be used externally
+	 * @param applier  what happens to the affected blocks
+	 * @param fire  whether or not the explosion should spawn fire afterwards
+	 */
+	private void explode(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, boolean save, BlockApplier applier, boolean fire) {
+		ExplosionBlockSet blocks = collectBlocks(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, condition);
+		if(save) {
+			saveAffectedBlocks(blocks);
+		}
+		applier.apply(blocks);
+		if(fire) {
+			placeFire(blocks);
+		}
+	}
+	
+	/**
+	 * Destroys the affected blocks, writing them straight into their chunk sections on the logical server side.
+	 * Large craters are not sent block by block but replayed by the clients, see {@link ExplosionReplay}.
+	 * Craters of the {@link ExplosionEngine#HIERARCHICAL} engine are never replayed, as the distances of its corner vectors depend on where they stop early,
+	 * which depends on chunks far outside of the crater that the clients may not have loaded.
+	 * @param blocks  the affected blocks
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 */
+	private void destroyBlocks(ExplosionBlockSet blocks, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion) {
+		if(level instanceof ServerWorld serverLevel) {
+			ExplosionReplayS2CPacket replay = null;
+			Set<ServerPlayerEntity> players = null;
+			if(bound == null && engine != ExplosionEngine.HIERARCHICAL && blocks.size() >= ExplosionReplay.MIN_BLOCKS && canCastOffThread()) {
+				players = ExplosionReplay.getPlayers(serverLevel, blocks);
+				replay = createReplay(serverLevel, blocks, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion);
+			}
+			ExplosionBlockWriter writer = new ExplosionBlockWriter(serverLevel, this, blocks, replay == null);
+			writer.removeAll();
+			writer.finish();
+			if(replay != null) {
+				ExplosionReplay.get(serverLevel).send(serverLevel, replay, blocks, players);
+			}
+		} else {
+			blocks.forEachBlockPos(pos -> {
+				level.getBlockState(pos).getBlock().onDestroyedByExplosion(level, pos, this);
+				level.setBlockState(pos, Blocks.AIR.getDefaultState(), 3);
+			});
+		}
+	}
+	
+	/**
+	 * Creates the packet that lets clients replay this explosion, using the seed of the {@link ExplosionPrecomputation} if the blocks have been computed ahead of time.
+	 * @param serverLevel  the level
+	 * @param blocks  the affected blocks, which have not been destroyed yet
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @return the {@link ExplosionReplayS2CPacket}
+	 */
+	private ExplosionReplayS2CPacket createReplay(ServerWorld serverLevel, ExplosionBlockSet blocks, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion) {
+		long replaySeed = usedPrecomputation == null ? seed : usedPrecomputation.getSeed();
+		return ExplosionReplay.get(serverLevel).createPacket(serverLevel, new Vec3d(posX, posY, posZ), size, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, engine, replaySeed, settings, blocks);
+	}
+	
+	/**
+	 * Computes the blocks of an explosion that has happened on the logical server side again
+	 * and replaces them with air without any side effects if the sections around them have the same hash as on the server.
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param hash  the hash of the sections around the crater on the server, see {@link ExplosionReplay#hashSections}
+	 * @return whether or not the hashes matched and the blocks have been replaced
+	 * @see ExplosionReplay
+	 */
+	boolean replayBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, long hash) {
+		boolean[] replayed = {false};
+		explode(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null, false, blocks -> {
+			if(ExplosionReplay.hashSections(level, blocks) != hash) {
+				return;
+			}
+			replayed[0] = true;
+			blocks.forEachBlockPos(pos -> {
+				if(!level.getBlockState(pos).isAir()) {
+					level.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL | Block.FORCE_STATE);
+				}
+			});
+		}, false);
+		return replayed[0];
+	}
+	
+	/**
+	 * Adds the collected blocks to the affected blocks of this explosion, reusing the {@link ExplosionBlockSet} if no blocks have been saved yet.
+	 * @param blocks  the collected blocks
+	 */
+	private void saveAffectedBlocks(ExplosionBlockSet blocks) {
+		if(affectedBlocks.isEmpty()) {
+			affectedBlocks = blocks;
+		} else {
+			affectedBlocks.addAll(blocks);
+		}
+	}
+	
+	/**
+	 * Randomly places fire on top of the destroyed blocks that are now air and stand on an opaque block.
+	 * @param blocks  the destroyed blocks
+	 */
+	private void placeFire(ExplosionBlockSet blocks) {
+		blocks.forEachBlockPos(pos -> {
+			if(random.nextDouble() > 0.75f && level.getBlockState(pos).isAir() && level.getBlockState(pos.down()).isOpaqueFullCube(level, pos)) {
+				level.setBlockState(pos, AbstractFireBlock.getState(level, pos));
+			}
+		});
+	}
+	
+	/**
+	 * Shoots the vectors of this explosion and collects every block they are able to destroy.
+	 * Depending on the {@link ExplosionEngine} of this explosion the vectors are either moved forward in fixed steps or traverse the block grid exactly.
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @return {@link ExplosionBlockSet} of the absolute positions of all affected blocks
+	 */
+	private ExplosionBlockSet collectBlocks(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition) {
+		prepare();
+		usedPrecomputation = null;
+		if(bound != null) {
+			IBlockExplosionCondition other = condition;
+			condition = other == null ? bound : (world, pos, state, distance) -> bound.conditionMet(world, pos, state, distance) && other.conditionMet(world, pos, state, distance);
+		}
+		boolean sphere = settings.performantExplosion;
+		double factor = settings.performanceFactor;
+		if(precomputation != null) {
+			ExplosionBlockSet precomputed = resistances == null ? null : precomputation.getResult(this, resistances, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, sphere, factor);
+			usedPrecomputation = precomputed == null ? null : precomputation;
+			precomputation = null;
+			if(precomputed != null) {
+				return condition == null ? precomputed : filterBlocks(precomputed, condition);
+			}
+		}
+		float stepLength = (float)(factor * 1.5f - 0.225f);
+		float[] rays = ExplosionRays.getDirections(size, sphere, getFringe(xzStrength, yStrength));
+		if(engine == ExplosionEngine.HIERARCHICAL) {
+			memo = resistances == null || !defaultDestruction || condition != null ? new ExplosionCellMemo(resistances == null) : null;
+			destroyableResistance = getDestroyableResistance(blockAccess, getReach(factor, stepLength, xzStrength, yStrength, randomVecLength), isStrongExplosion);
+			return new HierarchicalCaster(blockAccess, rays, factor, stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, condition).cast();
+		}
+		if(engine == ExplosionEngine.FLOOD_FILL) {
+			memo = resistances == null || !defaultDestruction || condition != null ? new ExplosionCellMemo(resistances == null) : null;
+			return new FloodFiller(blockAccess, rays, factor, stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, condition).fill();
+		}
+		float[] lengths = createLengths(rays, randomVecLength);
+		int parallelism = settings.getParallelism();
+		if(parallelism > 1 && size >= settings.parallelThreshold && canCastOffThread()) {
+			memo = null;
+			double reach = getReach(factor, stepLength, xzStrength, yStrength, randomVecLength);
+			ExplosionSectionSnapshot snapshot = ExplosionSectionSnapshot.create(level, posX, posY, posZ, reach, false);
+			destroyableResistance = getDestroyableResistance(snapshot, reach, isStrongExplosion);
+			int batch = Math.max(lengths.length / (parallelism * 4), 16);
+			ExplosionBlockSet blocks = ExplosionWorkers.getPool(parallelism).invoke(new RayCastTask(snapshot, rays, lengths, 0, lengths.length, batch, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion));
+			return condition == null ? blocks : filterBlocks(blocks, condition);
+		}
+		memo = resistances == null || !defaultDestruction || condition != null ? new ExplosionCellMemo(resistances == null) : null;
+		destroyableResistance = getDestroyableResistance(blockAccess, getReach(factor, stepLength, xzStrength, yStrength, randomVecLength), isStrongExplosion);
+		ExplosionBlockSet blocks = new ExplosionBlockSet();
+		castRays(blockAccess, rays, lengths, 0, lengths.length, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion, condition, blocks);
+		return blocks;
+	}
+	
+	/**
+	 * Starts shooting the vectors of this explosion on a worker thread using a copy of the surrounding sections, 
+	 * so that a later explosion at the same position with the same parameters only has to apply the result.
+	 * This only works for explosions whose {@link ExplosionBehavior} does not depend on the position of a block.
+	 * @implNote must only be used on the thread that ticks the level
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @return the {@link ExplosionPrecomputation} or null if this explosion can not be computed ahead of time
+	 */
+	@Nullable
+	public ExplosionPrecomputation precomputeBlockExplosion(float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion) {
+		prepare();
+		if(!canCastOffThread()) {
+			return null;
+		}
+		memo = null;
+		boolean sphere = settings.performantExplosion;
+		double factor = settings.performanceFactor;
+		float stepLength = (float)(factor * 1.5f - 0.225f);
+		float[] rays = ExplosionRays.getDirections(size, sphere, getFringe(xzStrength, yStrength));
+		int parallelism = Math.max(settings.getParallelism(), 1);
+		double reach = getReach(factor, stepLength, xzStrength, yStrength, randomVecLength);
+		ExplosionSectionSnapshot snapshot = ExplosionSectionSnapshot.create(level, posX, posY, posZ, reach, true);
+		destroyableResistance = getDestroyableResistance(snapshot, reach, isStrongExplosion);
+		ForkJoinTask<ExplosionBlockSet> task;
+		if(engine == ExplosionEngine.HIERARCHICAL) {
+			HierarchicalCaster caster = new HierarchicalCaster(snapshot, rays, factor, stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null);
+			task = ExplosionWorkers.getPool(parallelism).submit(caster::cast);
+		} else if(engine == ExplosionEngine.FLOOD_FILL) {
+			FloodFiller filler = new FloodFiller(snapshot, rays, factor, stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, null);
+			task = ExplosionWorkers.getPool(parallelism).submit(filler::fill);
+		} else {
+			float[] lengths = createLengths(rays, randomVecLength);
+			int batch = Math.max(lengths.length / (parallelism * 4), 16);
+			task = ExplosionWorkers.getPool(parallelism).submit(new RayCastTask(snapshot, rays, lengths, 0, lengths.length, batch, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion));
+		}
+		return new ExplosionPrecomputation(this, resistances, xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion, sphere, factor, snapshot, task);
+	}
+	
+	/**
+	 * Lets the next block explosion of this ImprovedExplosion use the blocks of an {@link ExplosionPrecomputation} if it is still valid
+	 * @param precomputation  the {@link ExplosionPrecomputation}, may be null
+	 */
+	public void setPrecomputation(@Nullable ExplosionPrecomputation precomputation) {
+		this.precomputation = precomputation;
+	}
+	
+	/**
+	 * Cancels the {@link ExplosionPrecomputation} of this ImprovedExplosion, for instance because its blocks are destroyed by another explosion instead
+	 */
+	void cancelPrecomputation() {
+		if(precomputation != null) {
+			precomputation.cancel();
+			precomputation = null;
+		}
+	}
+	
+	/**
+	 * Limits the blocks the block explosions of this ImprovedExplosion can affect, on top of any {@link IBlockExplosionCondition} given to them.
+	 * Bounded explosions are never replayed by the clients, as they would not know the bound.
+	 * @param bound  the condition every affected block has to meet, may be null
+	 */
+	void setBound(@Nullable IBlockExplosionCondition bound) {
+		this.bound = bound;
+	}
+	
+	/**
+	 * Resolves the block access, the resistance table and the destruction rule used while shooting the vectors.
+	 */
+	private void prepare() {
+		blockAccess = ExplosionBlockAccess.get(level);
+		resistances = BlastResistanceTable.get(this, damageCalculator);
+		defaultDestruction = BlastResistanceTable.usesDefaultDestruction(damageCalculator, getEntity());
+	}
+	
+	/**
+	 * Checks whether the {@link ExplosionBehavior} of this explosion uses the default resistances and destroys every block it is strong enough for,
+	 * which makes the blocks of this explosion the same as the blocks of any other explosion with the same parameters that does
+	 * @return whether or not this explosion uses the default behavior
+	 */
+	boolean usesDefaultBehavior() {
+		return BlastResistanceTable.get(this, damageCalculator) != null && BlastResistanceTable.usesDefaultDestruction(damageCalculator, getEntity());
+	}
+	
+	/**
+	 * Vectors can only be shot on worker threads if the {@link ExplosionBehavior} of this explosion never needs to access the level.
+	 * @return whether or not the vectors of this explosion can be shot on worker threads
+	 */
+	private boolean canCastOffThread() {
+		return !level.isClient && resistances != null && defaultDestruction;
+	}
+	
+	/**
+	 * Draws the initial length of every vector of this explosion.
+	 * @param rays  the ray directions given by {@link ExplosionRays#getDirections(int, boolean, double)}
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @return the initial length of every vector
+	 */
+	private float[] createLengths(float[] rays, float randomVecLength) {
+		float[] lengths = new float[rays.length / 3];
+		for(int ray = 0; ray < lengths.length; ray++) {
+			lengths[ray] = createLength(randomVecLength);
+		}
+		return lengths;
+	}
+	
+	/**
+	 * Draws the initial length of a single vector of this explosion.
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @return the initial length of the vector
+	 */
+	private float createLength(float randomVecLength) {
+		return size * (0.7f + (float)random.nextDouble() * 0.6f * randomVecLength);
+	}
+	
+	/**
+	 * Creates the seed of the random numbers used by an explosion from the seed of the world, the position of the explosion and the time of the world,
+	 * so that an explosion happening at the same time in the same world always produces the same crater.
+	 * @param level  the level
+	 * @param x  the x center position
+	 * @param y  the y center position
+	 * @param z  the z center position
+	 * @return the seed
+	 */
+	private static long createSeed(World level, double x, double y, double z) {
+		long seed = level instanceof ServerWorld serverLevel ? serverLevel.getSeed() : 0L;
+		seed = HashCommon.mix(seed ^ Double.doubleToLongBits(x));
+		seed = HashCommon.mix(seed ^ Double.doubleToLongBits(y));
+		seed = HashCommon.mix(seed ^ Double.doubleToLongBits(z));
+		return HashCommon.mix(seed ^ level.getTime());
+	}
+	
+	/**
+	 * Gets the seed of the random numbers used by this explosion for the length of its vectors and the placement of fire.
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Sets the seed of the random numbers used by this explosion, for instance to compute the same crater as an explosion on the logical server side.
+	 * @param seed  the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		random = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Calculates the maximum distance a vector of this explosion can travel from the center, including a margin for the blocks it ends in.
+	 * @param factor  the {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}
+	 * @param stepLength  the length a stepped vector loses per step
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @return the maximum distance
+	 */
+	private double getReach(double factor, float stepLength, float xzStrength, float yStrength, float randomVecLength) {
+		return getRayLength(factor, stepLength, xzStrength, yStrength, randomVecLength) + 2;
+	}
+	
+	/**
+	 * Calculates the maximum distance a vector of this explosion can travel from the center with its {@link ExplosionSettings}.
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @return the maximum distance
+	 */
+	double getReach(float xzStrength, float yStrength, float randomVecLength) {
+		double factor = settings.performanceFactor;
+		return getReach(factor, (float)(factor * 1.5f - 0.225f), xzStrength, yStrength, randomVecLength);
+	}
+	
+	/**
+	 * Calculates the distance at which the crater of this explosion roughly ends in solid blocks, which is its size stretched by the strength multipliers.
+	 * Vectors only travel farther through air and weak blocks, where they rarely miss a block even if they are more than a block apart.
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @return the distance
+	 */
+	private double getFringe(float xzStrength, float yStrength) {
+		return size * Math.max(Math.abs(xzStrength), Math.abs(yStrength));
+	}
+	
+	/**
+	 * Calculates the distance the longest vector of this explosion travels from the center if nothing stands in its way.
+	 * @param factor  the {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}
+	 * @param stepLength  the length a stepped vector loses per step
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param randomVecLength  the greater this value, the more distributed the length of the explosion vectors will be
+	 * @return the distance
+	 */
+	private double getRayLength(double factor, float stepLength, float xzStrength, float yStrength, float randomVecLength) {
+		return size * (0.7f + 0.6f * Math.max(randomVecLength, 0f)) * Math.max(factor / stepLength, 1d / VOXEL_STEP_SCALE) * Math.max(Math.abs(xzStrength), Math.abs(yStrength));
+	}
+	
+	/**
+	 * Finds the weakest block a stepped vector of this explosion could still destroy by looking at the summaries of all sections within reach.
+	 * A stepped vector samples every block with its full resistance, so once its length is no longer greater than this resistance it can not destroy anything anymore.
+	 * Only chunks that are already loaded are looked at, any other chunk within reach makes the weakest block unknown.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param reach  the maximum distance a vector of this explosion can travel
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation, fluids are destroyed regardless of the length of the vector then
+	 * @return the smallest resistance of any block that is not air within reach or 0 if it is unknown
+	 */
+	private float getDestroyableResistance(ExplosionBlockReader reader, double reach, boolean isStrongExplosion) {
+		if(resistances == null || engine == ExplosionEngine.VOXEL_RAYCAST) {
+			return 0f;
+		}
+		float resistance = Float.POSITIVE_INFINITY;
+		int minSectionX = ChunkSectionPos.getSectionCoord(posX - reach);
+		int minSectionZ = ChunkSectionPos.getSectionCoord(posZ - reach);
+		int maxSectionX = ChunkSectionPos.getSectionCoord(posX + reach);
+		int maxSectionZ = ChunkSectionPos.getSectionCoord(posZ + reach);
+		int minSectionY = Math.max(ChunkSectionPos.getSectionCoord(posY - reach), level.getBottomSectionCoord());
+		int maxSectionY = Math.min(ChunkSectionPos.getSectionCoord(posY + reach), level.getTopSectionCoord() - 1);
+		for(int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+			for(int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+				double distanceX = Math.max(0, Math.max((sectionX << 4) - posX, posX - ((sectionX << 4) + 16)));
+				double distanceZ = Math.max(0, Math.max((sectionZ << 4) - posZ, posZ - ((sectionZ << 4) + 16)));
+				if(distanceX * distanceX + distanceZ * distanceZ > reach * reach) {
+					continue;
+				}
+				if(!level.getChunkManager().isChunkLoaded(sectionX, sectionZ)) {
+					return 0f;
+				}
+				for(int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+					ExplosionSectionSummary summary = reader.getSummary(sectionX, sectionY, sectionZ, resistances);
+					if(summary == null || (isStrongExplosion && summary.hasFluid)) {
+						return 0f;
 					}
+					resistance = Math.min(resistance, summary.minSolidResistance);
 				}
 			}
 		}
-		if(saveBlockPos) {
-			BlockPos posTNT = new BlockPos(floor(posX), floor(posY), floor(posZ));
-			for(BlockPos pos : blocks) {
-				affectedBlocks.add(encodeBlockPos(pos.subtract(posTNT).getX(), pos.subtract(posTNT).getY(), pos.subtract(posTNT).getZ()));
+		return resistance;
+	}
+	
+	/**
+	 * Shoots a range of the vectors of this explosion.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param rays  the ray directions given by {@link ExplosionRays#getDirections(int, boolean, double)}
+	 * @param lengths  the initial length of every vector
+	 * @param from  the index of the first vector, inclusive
+	 * @param to  the index of the last vector, exclusive
+	 * @param factor  the {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}
+	 * @param stepLength  the length a stepped vector loses per step
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param blocks  the set affected blocks are added to
+	 */
+	private void castRays(ExplosionBlockReader reader, float[] rays, float[] lengths, int from, int to, double factor, float stepLength, float xzStrength, float yStrength, float resistanceImpact, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, ExplosionBlockSet blocks) {
+		if(engine == ExplosionEngine.BATCHED_RAYCAST) {
+			stepRayBatches(reader, rays, lengths, from, to, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion, condition, blocks);
+			return;
+		}
+		for(int index = from; index < to; index++) {
+			int ray = index * 3;
+			float vecLength = lengths[index];
+			if(engine == ExplosionEngine.VOXEL_RAYCAST) {
+				traverseRay(reader, rays[ray] * xzStrength, rays[ray + 1] * yStrength, rays[ray + 2] * xzStrength, vecLength, resistanceImpact, isStrongExplosion, condition, blocks);
+			} else {
+				stepRay(reader, rays[ray] * factor * xzStrength, rays[ray + 1] * factor * yStrength, rays[ray + 2] * factor * xzStrength, vecLength, stepLength, resistanceImpact, isStrongExplosion, condition, blocks, null);
 			}
 		}
-		for(BlockPos pos : blocks) {
-			level.getBlockState(pos).getBlock().onDestroyedByExplosion(level, pos, this);
+	}
+	
+	/**
+	 * Moves a single vector forward in fixed steps, evaluating the block it ends up in after every step.
+	 * The vector is clipped against the height limit up front and skips sections containing nothing but air without reading their blocks.
+	 * It ends as soon as it enters a section whose weakest block is already too strong for it 
+	 * or once it is too weak for the weakest block within reach of the whole explosion, 
+	 * because a stepped vector samples every block with its full resistance.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param dirX  the x distance moved per step
+	 * @param dirY  the y distance moved per step
+	 * @param dirZ  the z distance moved per step
+	 * @param vecLength  the initial length of the vector
+	 * @param stepLength  the length the vector loses per step
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param blocks  the set affected blocks are added to
+	 * @param hit  an array the last step reached and the largest resistance passed are written to, may be null
+	 */
+	private void stepRay(ExplosionBlockReader reader, double dirX, double dirY, double dirZ, float vecLength, float stepLength, float resistanceImpact, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, ExplosionBlockSet blocks, @Nullable float[] hit) {
+		int lastStep = getLastStepInBuildLimit(dirY);
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		long lastSection = Long.MIN_VALUE;
+		float airResistance = -1f;
+		boolean checkFluids = isStrongExplosion;
+		int reached = 0;
+		float passed = 0f;
+		for(int step = 1; step <= lastStep && (step - 1) * stepLength < vecLength; step++) {
+			int x = (int)(posX + step * dirX);
+			int y = (int)(posY + step * dirY);
+			int z = (int)(posZ + step * dirZ);
+			long section = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+			if(section != lastSection) {
+				lastSection = section;
+				ExplosionSectionSummary summary = getSummary(reader, x >> 4, y >> 4, z >> 4);
+				airResistance = getAirResistance(summary);
+				checkFluids = isStrongExplosion && (summary == null || summary.hasFluid);
+				if(summary != null && !checkFluids && summary.minResistance * resistanceImpact >= vecLength) {
+					break;
+				}
+			}
+			if(airResistance == 0f) {
+				int minX = x & ~15;
+				int minY = y & ~15;
+				int minZ = z & ~15;
+				step = Math.min(getLeaveStep(posX, dirX, minX, minX + 15, step), Math.min(getLeaveStep(posY, dirY, minY, minY + 15, step), getLeaveStep(posZ, dirZ, minZ, minZ + 15, step))) - 1;
+				reached = Math.min(step, (int)Math.ceil(vecLength / stepLength));
+			} else if(airResistance > 0f) {
+				vecLength -= airResistance * resistanceImpact;
+				reached = step;
+			} else {
+				float before = vecLength;
+				vecLength = explodeBlock(reader, pos.set(x, y, z), vecLength, 1f, resistanceImpact, checkFluids, condition, blocks);
+				reached = step;
+				if(vecLength > 0) {
+					passed = Math.max(passed, before - vecLength);
+				}
+				if(vecLength <= destroyableResistance * resistanceImpact) {
+					break;
+				}
+			}
 		}
-		if(fire) {
-			for(BlockPos pos : blocks) {
-				if(Math.random() > 0.75f && level.getBlockState(pos).isAir() && level.getBlockState(pos.down()).isOpaqueFullCube(level, pos)) {
-					level.setBlockState(pos, AbstractFireBlock.getState(level, pos));
+		if(hit != null) {
+			hit[0] = reached;
+			hit[1] = passed;
+		}
+	}
+	
+	/**
+	 * Moves vectors forward in groups of {@link ImprovedExplosion#BATCH_LANES}, all vectors of a group taking their steps together.
+	 * Every step first converts the positions of the whole group to block positions in one tight loop over plain arrays, 
+	 * which the JIT can unroll and vectorize, and only then evaluates the blocks one vector after another.
+	 * The blocks evaluated are the same as with {@link ImprovedExplosion#stepRay}.
+	 * A vector entering a section containing nothing but air waits until the step at which it leaves the section again,
+	 * and the whole group moves straight to the next step at which any of its vectors has something to evaluate.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param rays  the ray directions given by {@link ExplosionRays#getDirections(int, boolean, double)}
+	 * @param lengths  the initial length of every vector
+	 * @param from  the index of the first vector, inclusive
+	 * @param to  the index of the last vector, exclusive
+	 * @param factor  the {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}
+	 * @param stepLength  the length a stepped vector loses per step
+	 * @param xzStrength  a multiplier to the x and z vector addition
+	 * @param yStrength  a multiplier to the y vector addition
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param blocks  the set affected blocks are added to
+	 */
+	private void stepRayBatches(ExplosionBlockReader reader, float[] rays, float[] lengths, int from, int to, double factor, float stepLength, float xzStrength, float yStrength, float resistanceImpact, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, ExplosionBlockSet blocks) {
+		double[] dirX = new double[BATCH_LANES];
+		double[] dirY = new double[BATCH_LANES];
+		double[] dirZ = new double[BATCH_LANES];
+		int[] blockX = new int[BATCH_LANES];
+		int[] blockY = new int[BATCH_LANES];
+		int[] blockZ = new int[BATCH_LANES];
+		float[] vecLength = new float[BATCH_LANES];
+		int[] lastStep = new int[BATCH_LANES];
+		long[] lastSection = new long[BATCH_LANES];
+		float[] airResistance = new float[BATCH_LANES];
+		boolean[] checkFluids = new boolean[BATCH_LANES];
+		int[] resumeStep = new int[BATCH_LANES];
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		for(int first = from; first < to; first += BATCH_LANES) {
+			int lanes = Math.min(BATCH_LANES, to - first);
+			int alive = 0;
+			for(int lane = 0; lane < lanes; lane++) {
+				int ray = (first + lane) * 3;
+				dirX[lane] = rays[ray] * factor * xzStrength;
+				dirY[lane] = rays[ray + 1] * factor * yStrength;
+				dirZ[lane] = rays[ray + 2] * factor * xzStrength;
+				vecLength[lane] = lengths[first + lane];
+				lastStep[lane] = getLastStepInBuildLimit(dirY[lane]);
+				lastSection[lane] = Long.MIN_VALUE;
+				airResistance[lane] = -1f;
+				checkFluids[lane] = isStrongExplosion;
+				resumeStep[lane] = 0;
+				alive |= 1 << lane;
+			}
+			for(int step = 1; alive != 0;) {
+				for(int lane = 0; lane < BATCH_LANES; lane++) {
+					blockX[lane] = (int)(posX + step * dirX[lane]);
+					blockY[lane] = (int)(posY + step * dirY[lane]);
+					blockZ[lane] = (int)(posZ + step * dirZ[lane]);
 				}
+				float threshold = (step - 1) * stepLength;
+				int nextStep = Integer.MAX_VALUE;
+				for(int lane = 0; lane < lanes; lane++) {
+					if((alive & (1 << lane)) == 0) {
+						continue;
+					}
+					if(step < resumeStep[lane]) {
+						nextStep = Math.min(nextStep, resumeStep[lane]);
+						continue;
+					}
+					if(step > lastStep[lane] || threshold >= vecLength[lane]) {
+						alive &= ~(1 << lane);
+						continue;
+					}
+					int x = blockX[lane];
+					int y = blockY[lane];
+					int z = blockZ[lane];
+					long section = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+					if(section != lastSection[lane]) {
+						lastSection[lane] = section;
+						ExplosionSectionSummary summary = getSummary(reader, x >> 4, y >> 4, z >> 4);
+						airResistance[lane] = getAirResistance(summary);
+						checkFluids[lane] = isStrongExplosion && (summary == null || summary.hasFluid);
+						if(summary != null && !checkFluids[lane] && summary.minResistance * resistanceImpact >= vecLength[lane]) {
+							alive &= ~(1 << lane);
+							continue;
+						}
+					}
+					if(airResistance[lane] == 0f) {
+						int minX = x & ~15;
+						int minY = y & ~15;
+						int minZ = z & ~15;
+						resumeStep[lane] = Math.min(getLeaveStep(posX, dirX[lane], minX, minX + 15, step), Math.min(getLeaveStep(posY, dirY[lane], minY, minY + 15, step), getLeaveStep(posZ, dirZ[lane], minZ, minZ + 15, step)));
+						nextStep = Math.min(nextStep, resumeStep[lane]);
+						continue;
+					}
+					if(airResistance[lane] > 0f) {
+						vecLength[lane] -= airResistance[lane] * resistanceImpact;
+					} else {
+						vecLength[lane] = explodeBlock(reader, pos.set(x, y, z), vecLength[lane], 1f, resistanceImpact, checkFluids[lane], condition, blocks);
+						if(vecLength[lane] <= destroyableResistance * resistanceImpact) {
+							alive &= ~(1 << lane);
+							continue;
+						}
+					}
+					nextStep = Math.min(nextStep, step + 1);
+				}
+				step = nextStep;
 			}
 		}
 	}
 	
+	/**
+	 * Calculates the last step of a stepped vector that still is within the height limit.
+	 * Like every step, the y position is converted to a block position by casting it to an int.
+	 * @param dirY  the y distance moved per step
+	 * @return the last step within the height limit, 0 if the first step already is outside of it
+	 */
+	private int getLastStepInBuildLimit(double dirY) {
+		int bottomY = level.getBottomY();
+		int topY = level.getTopY();
+		if(isOutside(posY + dirY, bottomY, topY - 1)) {
+			return 0;
+		}
+		if(dirY == 0) {
+			return Integer.MAX_VALUE;
+		}
+		return getLeaveStep(posY, dirY, bottomY, topY - 1, 1) - 1;
+	}
+	
+	/**
+	 * Calculates the first step after the given one at which a stepped vector leaves a range of block coordinates along one axis.
+	 * @param start  the start position on the axis
+	 * @param dir  the distance moved per step on the axis
+	 * @param min  the smallest block coordinate within the range
+	 * @param max  the largest block coordinate within the range
+	 * @param step  the current step, which has to be within the range
+	 * @return the first step outside of the range or {@link Integer#MAX_VALUE} if the vector never leaves it
+	 */
+	private static int getLeaveStep(double start, double dir, int min, int max, int step) {
+		if(dir == 0) {
+			return Integer.MAX_VALUE;
+		}
+		double estimate = Math.floor(((dir > 0 ? max + 1 : min) - start) / dir);
+		int leave = (int)Math.max(step + 1, Math.min(estimate, Integer.MAX_VALUE - 1));
+		while(leave > step + 1 && isOutside(start + (leave - 1) * dir, min, max)) {
+			leave--;
+		}
+		while(leave < Integer.MAX_VALUE && !isOutside(start + leave * dir, min, max)) {
+			leave++;
+		}
+		return leave;
+	}
+	
+	private static boolean isOutside(double position, int min, int max) {
+		int block = (int)position;
+		return block < min || block > max;
+	}
+	
+	/**
+	 * Gets the {@link ExplosionSectionSummary} of a chunk section, which is only available to explosions using a {@link BlastResistanceTable}.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param sectionX  the x section coordinate
+	 * @param sectionY  the y section coordinate
+	 * @param sectionZ  the z section coordinate
+	 * @return the {@link ExplosionSectionSummary} or null if there is none
+	 */
+	@Nullable
+	private ExplosionSectionSummary getSummary(ExplosionBlockReader reader, int sectionX, int sectionY, int sectionZ) {
+		return resistances == null ? null : reader.getSummary(sectionX, sectionY, sectionZ, resistances);
+	}
+	
+	/**
+	 * Checks whether a chunk section contains nothing but air of the same resistance.
+	 * Such a section can be crossed without reading any block, because air is never destroyed.
+	 * @param summary  the {@link ExplosionSectionSummary} of the section, may be null
+	 * @return the resistance shared by every air block of the section or -1 if the section can not be skipped
+	 */
+	private static float getAirResistance(@Nullable ExplosionSectionSummary summary) {
+		return summary != null && summary.onlyAir && summary.minResistance == summary.maxResistance ? summary.minResistance : -1f;
+	}
+	
+	/**
+	 * Removes every block that does not meet the {@link IBlockExplosionCondition} from blocks collected by worker threads.
+	 * @param blocks  the collected blocks
+	 * @param condition  the condition
+	 * @return {@link ExplosionBlockSet} of the blocks meeting the condition
+	 */
+	private ExplosionBlockSet filterBlocks(ExplosionBlockSet blocks, IBlockExplosionCondition condition) {
+		ExplosionBlockSet filtered = new ExplosionBlockSet();
+		blocks.forEachBlockPos(pos -> {
+			if(condition.conditionMet(level, pos, blockAccess.getBlockState(pos.getX(), pos.getY(), pos.getZ()), Math.sqrt(pos.getSquaredDistance(posX, posY, posZ)))) {
+				filtered.add(pos.getX(), pos.getY(), pos.getZ());
+			}
+		});
+		return filtered;
+	}
+	
+	/**
+	 * Moves a single vector through the block grid with an Amanatides-Woo traversal, visiting every block it passes exactly once.
+	 * The resistance of a block is weighted by the length of the vector inside of it, 
+	 * so that the falloff matches the one of the stepped vectors with the finest {@link LuckyTNTLibConfigValues#EXPLOSION_PERFORMANCE_FACTOR}.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param stepX  the x component of the direction, already multiplied by the xzStrength
+	 * @param stepY  the y component of the direction, already multiplied by the yStrength
+	 * @param stepZ  the z component of the direction, already multiplied by the xzStrength
+	 * @param vecLength  the initial length of the vector
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param blocks  the set affected blocks are added to
+	 */
+	private void traverseRay(ExplosionBlockReader reader, double stepX, double stepY, double stepZ, float vecLength, float resistanceImpact, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, ExplosionBlockSet blocks) {
+		int bottomY = level.getBottomY();
+		int topY = level.getTopY();
+		int x = floor(posX);
+		int y = floor(posY);
+		int z = floor(posZ);
+		if(y < bottomY || y >= topY) {
+			return;
+		}
+		int signX = stepX > 0 ? 1 : (stepX < 0 ? -1 : 0);
+		int signY = stepY > 0 ? 1 : (stepY < 0 ? -1 : 0);
+		int signZ = stepZ > 0 ? 1 : (stepZ < 0 ? -1 : 0);
+		double deltaX = signX == 0 ? Double.POSITIVE_INFINITY : 1d / Math.abs(stepX);
+		double deltaY = signY == 0 ? Double.POSITIVE_INFINITY : 1d / Math.abs(stepY);
+		double deltaZ = signZ == 0 ? Double.POSITIVE_INFINITY : 1d / Math.abs(stepZ);
+		double nextX = signX == 0 ? Double.POSITIVE_INFINITY : (signX > 0 ? x + 1 - posX : posX - x) * deltaX;
+		double nextY = signY == 0 ? Double.POSITIVE_INFINITY : (signY > 0 ? y + 1 - posY : posY - y) * deltaY;
+		double nextZ = signZ == 0 ? Double.POSITIVE_INFINITY : (signZ > 0 ? z + 1 - posZ : posZ - z) * deltaZ;
+		double distance = 0;
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		long lastSection = Long.MIN_VALUE;
+		float airResistance = -1f;
+		boolean checkFluids = isStrongExplosion;
+		while(distance * VOXEL_STEP_SCALE < vecLength) {
+			long section = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+			if(section != lastSection) {
+				lastSection = section;
+				ExplosionSectionSummary summary = getSummary(reader, x >> 4, y >> 4, z >> 4);
+				airResistance = getAirResistance(summary);
+				checkFluids = isStrongExplosion && (summary == null || summary.hasFluid);
+			}
+			if(airResistance == 0f) {
+				double exitX = signX == 0 ? Double.POSITIVE_INFINITY : nextX + (signX > 0 ? (x | 15) - x : x - (x & ~15)) * deltaX;
+				double exitY = signY == 0 ? Double.POSITIVE_INFINITY : nextY + (signY > 0 ? (y | 15) - y : y - (y & ~15)) * deltaY;
+				double exitZ = signZ == 0 ? Double.POSITIVE_INFINITY : nextZ + (signZ > 0 ? (z | 15) - z : z - (z & ~15)) * deltaZ;
+				int axis = exitX <= exitY && exitX <= exitZ ? 0 : (exitY <= exitZ ? 1 : 2);
+				double exit = Math.min(exitX, Math.min(exitY, exitZ));
+				if(exit == Double.POSITIVE_INFINITY || exit * VOXEL_STEP_SCALE >= vecLength) {
+					break;
+				}
+				int crossingsX = getCrossings(nextX, deltaX, exit, axis >= 0);
+				int crossingsY = getCrossings(nextY, deltaY, exit, axis >= 1);
+				int crossingsZ = getCrossings(nextZ, deltaZ, exit, axis >= 2);
+				x += signX * crossingsX;
+				y += signY * crossingsY;
+				z += signZ * crossingsZ;
+				nextX += crossingsX * deltaX;
+				nextY += crossingsY * deltaY;
+				nextZ += crossingsZ * deltaZ;
+				distance = exit;
+				if(y < bottomY || y >= topY) {
+					break;
+				}
+				continue;
+			}
+			double exit = Math.min(nextX, Math.min(nextY, nextZ));
+			if(exit == Double.POSITIVE_INFINITY) {
+				if(airResistance < 0f) {
+					explodeBlock(reader, pos.set(x, y, z), vecLength, 1f, resistanceImpact, checkFluids, condition, blocks);
+				}
+				break;
+			}
+			float samples = (float)((exit - distance) / VOXEL_REFERENCE_STEP);
+			if(airResistance > 0f) {
+				vecLength -= airResistance * resistanceImpact * samples;
+			} else {
+				vecLength = explodeBlock(reader, pos.set(x, y, z), vecLength, samples, resistanceImpact, checkFluids, condition, blocks);
+			}
+			distance = exit;
+			if(nextX <= nextY && nextX <= nextZ) {
+				x += signX;
+				nextX += deltaX;
+			} else if(nextY <= nextZ) {
+				y += signY;
+				nextY += deltaY;
+				if(y < bottomY || y >= topY) {
+					break;
+				}
+			} else {
+				z += signZ;
+				nextZ += deltaZ;
+			}
+		}
+	}
+	
+	/**
+	 * Counts how many block borders along one axis a voxel traversal crosses up to a certain distance.
+	 * Borders crossed exactly at the limit are only counted if the traversal would cross them before the border it leaves the section through.
+	 * @param next  the distance at which the next border on the axis is crossed
+	 * @param delta  the distance between two borders on the axis
+	 * @param limit  the distance to count up to
+	 * @param inclusive  whether or not a border crossed exactly at the limit is counted
+	 * @return the amount of borders crossed
+	 */
+	private static int getCrossings(double next, double delta, double limit, boolean inclusive) {
+		if(next > limit || (!inclusive && next == limit)) {
+			return 0;
+		}
+		int crossings = (int)((limit - next) / delta) + 1;
+		while(crossings > 0 && (inclusive ? next + (crossings - 1) * delta > limit : next + (crossings - 1) * delta >= limit)) {
+			crossings--;
+		}
+		while(inclusive ? next + crossings * delta <= limit : next + crossings * delta < limit) {
+			crossings++;
+		}
+		return crossings;
+	}
+	
+	/**
+	 * Evaluates a single block hit by a vector of this explosion and adds it to the affected blocks if it can be destroyed.
+	 * @param reader  the {@link ExplosionBlockReader} the block states are read from
+	 * @param pos  the position of the block, may be mutable
+	 * @param vecLength  the current length of the vector
+	 * @param samples  how many times the vector samples this block. The first sample decides whether or not the block is destroyed
+	 * @param resistanceImpact  the relative impact that explosion resistance of blocks has on the penetration force of explosion
+	 * @param isStrongExplosion  whether or not fluids should be ignored in the explosion resistance calculation, may be false for sections without fluids
+	 * @param condition  the condition on which a block is added to the affected blocks, may be null
+	 * @param blocks  the set affected blocks are added to
+	 * @return the length of the vector after passing the block
+	 */
+	private float explodeBlock(ExplosionBlockReader reader, BlockPos pos, float vecLength, float samples, float resistanceImpact, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition, ExplosionBlockSet blocks) {
+		int x = pos.getX();
+		int y = pos.getY();
+		int z = pos.getZ();
+		BlockState blockState = reader.getBlockState(x, y, z);
+		if(isStrongExplosion && !blockState.getFluidState().isEmpty()) {
+			if(conditionMet(pos, blockState, condition)) {
+				blocks.add(x, y, z);
+			}
+			return vecLength;
+		}
+		float resistance;
+		if(resistances != null) {
+			resistance = resistances[Block.getRawIdFromState(blockState)];
+		} else if((memo.getFlags(x, y, z) & ExplosionCellMemo.RESISTANCE_KNOWN) != 0) {
+			resistance = memo.getResistance(x, y, z);
+		} else {
+			Optional<Float> explosionResistance = damageCalculator.getBlastResistance(this, level, pos, blockState, blockState.getFluidState());
+			resistance = explosionResistance.isPresent() ? (explosionResistance.get() + 0.3f) * 0.3f : 0f;
+			memo.setResistance(x, y, z, resistance);
+		}
+		resistance *= resistanceImpact;
+		vecLength -= resistance * Math.min(samples, 1f);
+		if(vecLength > 0 && !blockState.isAir() && canDestroyBlock(pos, blockState, vecLength) && conditionMet(pos, blockState, condition)) {
+			blocks.add(x, y, z);
+		}
+		return vecLength - resistance * Math.max(samples - 1f, 0f);
+	}
+	
+	/**
+	 * Checks whether the {@link ExplosionBehavior} of this explosion allows a block to be destroyed.
+	 * The result is evaluated once per block and then remembered for every other vector passing it.
+	 * @param pos  the position of the block, may be mutable
+	 * @param blockState  the state of the block
+	 * @param vecLength  the current length of the vector
+	 * @return whether or not the block can be destroyed
+	 */
+	private boolean canDestroyBlock(BlockPos pos, BlockState blockState, float vecLength) {
+		if(defaultDestruction) {
+			return true;
+		}
+		byte flags = memo.getFlags(pos.getX(), pos.getY(), pos.getZ());
+		if((flags & ExplosionCellMemo.DESTRUCTION_KNOWN) != 0) {
+			return (flags & ExplosionCellMemo.DESTROYABLE) != 0;
+		}
+		boolean destroyable = damageCalculator.canDestroyBlock(this, level, pos.toImmutable(), blockState, vecLength);
+		memo.addFlags(pos.getX(), pos.getY(), pos.getZ(), destroyable ? ExplosionCellMemo.DESTRUCTION_KNOWN | ExplosionCellMemo.DESTROYABLE : ExplosionCellMemo.DESTRUCTION_KNOWN);
+		return destroyable;
+	}
+	
+	/**
+	 * Checks whether a block meets the {@link IBlockExplosionCondition} given to this explosion.
+	 * The condition is evaluated once per block and then remembered for every other vector passing it.
+	 * @param pos  the position of the block, may be mutable
+	 * @param blockState  the state of the block
+	 * @param condition  the condition, may be null
+	 * @return whether or not the condition is met or true if there is no condition
+	 */
+	private boolean conditionMet(BlockPos pos, BlockState blockState, @Nullable IBlockExplosionCondition condition) {
+		if(condition == null) {
+			return true;
+		}
+		byte flags = memo.getFlags(pos.getX(), pos.getY(), pos.getZ());
+		if((flags & ExplosionCellMemo.CONDITION_KNOWN) != 0) {
+			return (flags & ExplosionCellMemo.CONDITION_MET) != 0;
+		}
+		boolean met = condition.conditionMet(level, pos.toImmutable(), blockState, Math.sqrt(pos.getSquaredDistance(posX, posY, posZ)));
+		memo.addFlags(pos.getX(), pos.getY(), pos.getZ(), met ? ExplosionCellMemo.CONDITION_KNOWN | ExplosionCellMemo.CONDITION_MET : ExplosionCellMemo.CONDITION_KNOWN);
+		return met;
+	}
+	
 	/**
 	 * Encodes 3 coordinates into a singular int value. 
 	 * Coordinates greater than the absolute value of 511 will be clamped to 511.
@@ -459,7 +1225,9 @@ public class ImprovedExplosion extends Explosion {
 	 * @param y  the y position of the block
 	 * @param z  the z position of the block
 	 * @return encoded int containing information about x, y and z positions, all of which can have values between -511 and 511
+	 * @deprecated affected blocks are stored in an {@link ExplosionBlockSet}, which is not limited in size
 	 */
+	@Deprecated
 	protected int encodeBlockPos(int x, int y, int z) {
 		int x0 = Integer.signum(x);
 		x = Math.abs(x) > 511 ? 511 : Math.abs(x);
@@ -487,7 +1255,9 @@ public class ImprovedExplosion extends Explosion {
 	 * Decodes an encoded value generated by {@link ImprovedExplosion#encodeBlockPos(int, int, int)} into a {@link BlockPos}.
 	 * @param encodedVal  the position encoded by {@link ImprovedExplosion#encodeBlockPos(int, int, int)}
 	 * @return BlockPos with the relative x, y and z coordinates decoded again with an absolute max value of 511
+	 * @deprecated affected blocks are stored in an {@link ExplosionBlockSet}, which is not limited in size
 	 */
+	@Deprecated
 	protected BlockPos decodeBlockPos(int encodedVal) {
 		int zRaw = (encodedVal & 0b00000000000000000000000111111111);
 		int zNeg = (encodedVal & 0b00000000000000000000001000000000) >> 9;
@@ -501,6 +1271,22 @@ public class ImprovedExplosion extends Explosion {
 		return new BlockPos(xVal, yVal, zVal);
 	}
 	
+	/**
+	 * Sets the {@link ExplosionEngine} used by the block explosions of this ImprovedExplosion
+	 * @implNote defaults to {@link ExplosionEngine#RAYCAST}
+	 * @param engine  the new engine
+	 */
+	public void setEngine(ExplosionEngine engine) {
+		this.engine = engine;
+	}
+	
+	/**
+	 * @return the {@link ExplosionEngine} used by the block explosions of this ImprovedExplosion
+	 */
+	public ExplosionEngine getEngine() {
+		return engine;
+	}
+	
 	/**
 	 * Damages and throws back all entities affected by this explosion determined by the {@link ImprovedExplosion#size}.
 	 * @param knockbackStrength  multiplier to the strength of the knockback
@@ -598,10 +1384,426 @@ public class ImprovedExplosion extends Explosion {
 	@Override
 	@Nullable
 	public List<BlockPos> getAffectedBlocks() {
-		List<BlockPos> blocks = new ArrayList<>();
-		for(int intPos : affectedBlocks) {
-			blocks.add(decodeBlockPos(intPos).add(floor(posX), floor(posY), floor(posZ)));
-		}
+		List<BlockPos> blocks = new ArrayList<>(affectedBlocks.size());
+		affectedBlocks.forEachBlockPos(blocks::add);
 		return blocks;
 	}
+	
+	/**
+	 * Gets the affected blocks without converting them into {@link BlockPos}
+	 * @return the {@link ExplosionBlockSet} of all affected blocks. Must not be modified
+	 */
+	public ExplosionBlockSet getAffectedBlockSet() {
+		return affectedBlocks;
+	}
+	
+	/**
+	 * Shoots the vectors of a {@link ExplosionEngine#HIERARCHICAL} explosion.
+	 * <p>
+	 * The directions are given by the six faces of a cube, each split into a coarse grid whose cells are roughly 
+	 * {@link ImprovedExplosion#HIERARCHICAL_COARSE_SPACING} blocks wide at a distance of the size.
+	 * A vector is shot at every corner of a cell, and a cell is split into four whenever the distances its corner vectors travel per length differ by more than 
+	 * {@link ImprovedExplosion#HIERARCHICAL_TOLERANCE}, until the cells are less than a block wide.
+	 * Cells whose corners agree are filled: every block inside the distance interpolated between the corners is destroyed 
+	 * as long as it is not stronger than the strongest block a corner vector passed.
+	 */
+	private class HierarchicalCaster {
+		
+		private final ExplosionBlockReader reader;
+		private final float[] rays;
+		private final double factor;
+		private final float stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength;
+		private final boolean isStrongExplosion;
+		@Nullable private final IBlockExplosionCondition condition;
+		private final ExplosionBlockSet blocks = new ExplosionBlockSet();
+		private final Long2ObjectOpenHashMap<float[]> corners = new Long2ObjectOpenHashMap<>();
+		private final Long2ObjectOpenHashMap<float[]> leaves = new Long2ObjectOpenHashMap<>();
+		private final float[] hit = new float[2];
+		private final int coarse, levels, resolution;
+		private float maxDistance = 0f;
+		private float maxPassed = 0f;
+		
+		private HierarchicalCaster(ExplosionBlockReader reader, float[] rays, double factor, float stepLength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition) {
+			this.reader = reader;
+			this.rays = rays;
+			this.factor = factor;
+			this.stepLength = stepLength;
+			this.xzStrength = xzStrength;
+			this.yStrength = yStrength;
+			this.resistanceImpact = resistanceImpact;
+			this.randomVecLength = randomVecLength;
+			this.isStrongExplosion = isStrongExplosion;
+			this.condition = condition;
+			int finest = Math.max(2 * size, 1);
+			int coarse = Math.max((finest + HIERARCHICAL_COARSE_SPACING - 1) / HIERARCHICAL_COARSE_SPACING, 1);
+			int levels = 0;
+			while(coarse << levels < finest) {
+				levels++;
+			}
+			this.coarse = coarse;
+			this.levels = levels;
+			this.resolution = coarse << levels;
+		}
+		
+		/**
+		 * Shoots the coarse vectors, refines the cells whose corners disagree and fills the rest.
+		 * Explosions that are flattened to nothing on an axis can not be filled and shoot their usual vectors instead.
+		 * @return {@link ExplosionBlockSet} of the absolute positions of all affected blocks
+		 */
+		private ExplosionBlockSet cast() {
+			if(xzStrength == 0 || yStrength == 0) {
+				float[] lengths = createLengths(rays, randomVecLength);
+				castRays(reader, rays, lengths, 0, lengths.length, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion, condition, blocks);
+				return blocks;
+			}
+			for(int face = 0; face < 6; face++) {
+				for(int u = 0; u < coarse; u++) {
+					for(int v = 0; v < coarse; v++) {
+						refine(face, 0, u, v);
+					}
+				}
+			}
+			fill();
+			return blocks;
+		}
+		
+		/**
+		 * Either splits a cell into four smaller ones or remembers it as a leaf that is filled later.
+		 * @param face  the face of the cube the cell is on
+		 * @param level  the level of the cell, 0 being the coarse grid
+		 * @param u  the first grid coordinate of the cell on its level
+		 * @param v  the second grid coordinate of the cell on its level
+		 */
+		private void refine(int face, int level, int u, int v) {
+			int span = 1 << (levels - level);
+			float[] corner00 = getCorner(face, u * span, v * span);
+			float[] corner10 = getCorner(face, (u + 1) * span, v * span);
+			float[] corner01 = getCorner(face, u * span, (v + 1) * span);
+			float[] corner11 = getCorner(face, (u + 1) * span, (v + 1) * span);
+			float min = Math.min(Math.min(corner00[3], corner10[3]), Math.min(corner01[3], corner11[3]));
+			float max = Math.max(Math.max(corner00[3], corner10[3]), Math.max(corner01[3], corner11[3]));
+			if(level < levels && max - min > max * HIERARCHICAL_TOLERANCE) {
+				for(int child = 0; child < 4; child++) {
+					refine(face, level + 1, u * 2 + (child & 1), v * 2 + (child >> 1));
+				}
+			} else {
+				float passed = Math.max(Math.max(corner00[1], corner10[1]), Math.max(corner01[1], corner11[1]));
+				leaves.put(getKey(face, level, u, v), new float[] {corner00[0], corner10[0], corner01[0], corner11[0], passed});
+			}
+		}
+		
+		/**
+		 * Gets the vector shot at a corner of the finest grid, shooting it if that has not happened yet.
+		 * @param face  the face of the cube the corner is on
+		 * @param u  the first grid coordinate of the corner on the finest level
+		 * @param v  the second grid coordinate of the corner on the finest level
+		 * @return the distance the vector travelled, the largest resistance it passed, its initial length and the distance travelled per length
+		 */
+		private float[] getCorner(int face, int u, int v) {
+			long key = getKey(face, levels + 1, u, v);
+			float[] corner = corners.get(key);
+			if(corner == null) {
+				double a = -1d + 2d * u / resolution;
+				double b = -1d + 2d * v / resolution;
+				double scale = 1d / Math.sqrt(1d + a * a + b * b);
+				double major = ((face & 1) == 0 ? 1d : -1d) * scale;
+				int axis = face >> 1;
+				double dirX = axis == 0 ? major : a * scale;
+				double dirY = axis == 1 ? major : (axis == 0 ? a : b) * scale;
+				double dirZ = axis == 2 ? major : b * scale;
+				float length = createLength(randomVecLength);
+				stepRay(reader, dirX * factor * xzStrength, dirY * factor * yStrength, dirZ * factor * xzStrength, length, stepLength, resistanceImpact, isStrongExplosion, condition, blocks, hit);
+				float distance = (float)(hit[0] * factor);
+				corner = new float[] {distance, hit[1], length, length > 0 ? distance / length : 0f};
+				corners.put(key, corner);
+				maxDistance = Math.max(maxDistance, distance);
+				maxPassed = Math.max(maxPassed, hit[1]);
+			}
+			return corner;
+		}
+		
+		/**
+		 * Destroys the blocks inside of the leaf cells.
+		 * Sections that contain nothing but air or only blocks stronger than anything a vector passed are skipped without reading their blocks.
+		 */
+		private void fill() {
+			int extentXZ = (int)Math.ceil(maxDistance * Math.abs(xzStrength)) + 1;
+			int extentY = (int)Math.ceil(maxDistance * Math.abs(yStrength)) + 1;
+			int minX = floor(posX) - extentXZ;
+			int minY = Math.max(floor(posY) - extentY, level.getBottomY());
+			int minZ = floor(posZ) - extentXZ;
+			int maxX = floor(posX) + extentXZ;
+			int maxY = Math.min(floor(posY) + extentY, level.getTopY() - 1);
+			int maxZ = floor(posZ) + extentXZ;
+			BlockPos.Mutable pos = new BlockPos.Mutable();
+			for(int sectionX = minX >> 4; sectionX <= maxX >> 4; sectionX++) {
+				for(int sectionZ = minZ >> 4; sectionZ <= maxZ >> 4; sectionZ++) {
+					for(int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+						ExplosionSectionSummary summary = getSummary(reader, sectionX, sectionY, sectionZ);
+						boolean checkFluids = isStrongExplosion && (summary == null || summary.hasFluid);
+						if(summary != null && (summary.onlyAir || (!checkFluids && summary.minSolidResistance * resistanceImpact > maxPassed))) {
+							continue;
+						}
+						for(int x = Math.max(sectionX << 4, minX); x <= Math.min((sectionX << 4) + 15, maxX); x++) {
+							for(int z = Math.max(sectionZ << 4, minZ); z <= Math.min((sectionZ << 4) + 15, maxZ); z++) {
+								for(int y = Math.max(sectionY << 4, minY); y <= Math.min((sectionY << 4) + 15, maxY); y++) {
+									fillBlock(pos.set(x, y, z), checkFluids);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Destroys a single block if it is inside of the distance interpolated between the corners of the leaf cell it is in.
+		 * @param pos  the position of the block
+		 * @param checkFluids  whether or not fluids are destroyed regardless of their resistance
+		 */
+		private void fillBlock(BlockPos.Mutable pos, boolean checkFluids) {
+			double offX = (pos.getX() + 0.5d - posX) / xzStrength;
+			double offY = (pos.getY() + 0.5d - posY) / yStrength;
+			double offZ = (pos.getZ() + 0.5d - posZ) / xzStrength;
+			double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
+			if(distance >= maxDistance) {
+				return;
+			}
+			double absX = Math.abs(offX);
+			double absY = Math.abs(offY);
+			double absZ = Math.abs(offZ);
+			int face;
+			double a, b;
+			if(absX >= absY && absX >= absZ) {
+				face = offX >= 0 ? 0 : 1;
+				a = offY / absX;
+				b = offZ / absX;
+			} else if(absY >= absZ) {
+				face = offY >= 0 ? 2 : 3;
+				a = offX / absY;
+				b = offZ / absY;
+			} else {
+				face = offZ >= 0 ? 4 : 5;
+				a = offX / absZ;
+				b = offY / absZ;
+			}
+			double u = (a + 1d) * 0.5d * coarse;
+			double v = (b + 1d) * 0.5d * coarse;
+			for(int cellLevel = 0; cellLevel <= levels; cellLevel++) {
+				int cells = coarse << cellLevel;
+				double scaledU = u * (1 << cellLevel);
+				double scaledV = v * (1 << cellLevel);
+				int cellU = Math.min((int)scaledU, cells - 1);
+				int cellV = Math.min((int)scaledV, cells - 1);
+				float[] leaf = leaves.get(getKey(face, cellLevel, cellU, cellV));
+				if(leaf != null) {
+					double fracU = scaledU - cellU;
+					double fracV = scaledV - cellV;
+					double reach = (leaf[0] * (1 - fracU) + leaf[1] * fracU) * (1 - fracV) + (leaf[2] * (1 - fracU) + leaf[3] * fracU) * fracV;
+					if(distance < reach) {
+						explodeBlock(reader, pos, Math.nextUp(leaf[4]), 1f, resistanceImpact, checkFluids, condition, blocks);
+					}
+					return;
+				}
+			}
+		}
+		
+		/**
+		 * Encodes a cell or a corner into a singular long value.
+		 * @param face  the face of the cube
+		 * @param level  the level of the cell, corners use one above the finest level
+		 * @param u  the first grid coordinate
+		 * @param v  the second grid coordinate
+		 * @return the key
+		 */
+		private static long getKey(int face, int level, int u, int v) {
+			return ((long)level << 56) | ((long)face << 48) | ((long)u << 24) | v;
+		}
+	}
+	
+	/**
+	 * Finds the blocks of a {@link ExplosionEngine#FLOOD_FILL} explosion by spreading the energy of the explosion from its center to neighboring blocks.
+	 * <p>
+	 * Blocks are visited breadth first and at most once, each handing its remaining energy minus its own resistance on to its neighbors.
+	 * The resistance gathered along the way is spread over the straight distance to the center instead of the longer path through the grid, 
+	 * and the energy falls off with that distance just like it does for the voxel vectors, so a uniform area still ends up with a round crater.
+	 * A block reached by multiple neighbors keeps the least resistance gathered on the way.
+	 */
+	private class FloodFiller {
+		
+		private final ExplosionBlockReader reader;
+		private final float[] rays;
+		private final double factor;
+		private final float stepLength, xzStrength, yStrength, resistanceImpact, randomVecLength;
+		private final boolean isStrongExplosion;
+		@Nullable private final IBlockExplosionCondition condition;
+		private final ExplosionBlockSet blocks = new ExplosionBlockSet();
+		private final ExplosionBlockSet seen = new ExplosionBlockSet();
+		
+		private FloodFiller(ExplosionBlockReader reader, float[] rays, double factor, float stepLength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean isStrongExplosion, @Nullable IBlockExplosionCondition condition) {
+			this.reader = reader;
+			this.rays = rays;
+			this.factor = factor;
+			this.stepLength = stepLength;
+			this.xzStrength = xzStrength;
+			this.yStrength = yStrength;
+			this.resistanceImpact = resistanceImpact;
+			this.randomVecLength = randomVecLength;
+			this.isStrongExplosion = isStrongExplosion;
+			this.condition = condition;
+		}
+		
+		/**
+		 * Spreads the energy layer by layer until no block is left that can pass any on.
+		 * Explosions that are flattened to nothing on an axis can not be spread and shoot their usual vectors instead.
+		 * @return {@link ExplosionBlockSet} of the absolute positions of all affected blocks
+		 */
+		private ExplosionBlockSet fill() {
+			if(xzStrength == 0 || yStrength == 0) {
+				float[] lengths = createLengths(rays, randomVecLength);
+				castRays(reader, rays, lengths, 0, lengths.length, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion, condition, blocks);
+				return blocks;
+			}
+			int bottomY = level.getBottomY();
+			int topY = level.getTopY();
+			int startX = floor(posX);
+			int startY = floor(posY);
+			int startZ = floor(posZ);
+			if(startY < bottomY || startY >= topY) {
+				return blocks;
+			}
+			float energy = createLength(randomVecLength);
+			LongArrayList layer = new LongArrayList();
+			LongArrayList nextLayer = new LongArrayList();
+			Long2FloatOpenHashMap gathered = new Long2FloatOpenHashMap();
+			Long2FloatOpenHashMap nextGathered = new Long2FloatOpenHashMap();
+			layer.add(BlockPos.asLong(startX, startY, startZ));
+			gathered.put(BlockPos.asLong(startX, startY, startZ), 0f);
+			seen.add(startX, startY, startZ);
+			BlockPos.Mutable pos = new BlockPos.Mutable();
+			long lastSection = Long.MIN_VALUE;
+			boolean checkFluids = isStrongExplosion;
+			for(int steps = 0; !layer.isEmpty(); steps++) {
+				for(int index = 0; index < layer.size(); index++) {
+					long key = layer.getLong(index);
+					int x = BlockPos.unpackLongX(key);
+					int y = BlockPos.unpackLongY(key);
+					int z = BlockPos.unpackLongZ(key);
+					double offX = (x + 0.5d - posX) / xzStrength;
+					double offY = (y + 0.5d - posY) / yStrength;
+					double offZ = (z + 0.5d - posZ) / xzStrength;
+					double distance = Math.sqrt(offX * offX + offY * offY + offZ * offZ);
+					float resistance = gathered.get(key);
+					float vecLength = energy - (steps == 0 ? 0f : (float)(resistance * distance / steps) / VOXEL_REFERENCE_STEP);
+					if(distance * VOXEL_STEP_SCALE >= vecLength) {
+						continue;
+					}
+					long section = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+					if(section != lastSection) {
+						lastSection = section;
+						ExplosionSectionSummary summary = getSummary(reader, x >> 4, y >> 4, z >> 4);
+						checkFluids = isStrongExplosion && (summary == null || summary.hasFluid);
+					}
+					float remaining = explodeBlock(reader, pos.set(x, y, z), vecLength, 1f, resistanceImpact, checkFluids, condition, blocks);
+					if(remaining <= 0) {
+						continue;
+					}
+					resistance += vecLength - remaining;
+					spread(x + 1, y, z, resistance, nextLayer, nextGathered);
+					spread(x - 1, y, z, resistance, nextLayer, nextGathered);
+					spread(x, y, z + 1, resistance, nextLayer, nextGathered);
+					spread(x, y, z - 1, resistance, nextLayer, nextGathered);
+					if(y + 1 < topY) {
+						spread(x, y + 1, z, resistance, nextLayer, nextGathered);
+					}
+					if(y - 1 >= bottomY) {
+						spread(x, y - 1, z, resistance, nextLayer, nextGathered);
+					}
+				}
+				LongArrayList swapLayer = layer;
+				layer = nextLayer;
+				nextLayer = swapLayer;
+				nextLayer.clear();
+				Long2FloatOpenHashMap swapGathered = gathered;
+				gathered = nextGathered;
+				nextGathered = swapGathered;
+				nextGathered.clear();
+			}
+			return blocks;
+		}
+		
+		/**
+		 * Hands the resistance gathered on the way to a neighboring block, adding it to the next layer if it has not been reached before.
+		 * @param x  the x position of the neighbor
+		 * @param y  the y position of the neighbor
+		 * @param z  the z position of the neighbor
+		 * @param resistance  the resistance gathered up to and including the current block
+		 * @param nextLayer  the blocks of the next layer
+		 * @param nextGathered  the least resistance gathered on the way to every block of the next layer
+		 */
+		private void spread(int x, int y, int z, float resistance, LongArrayList nextLayer, Long2FloatOpenHashMap nextGathered) {
+			long key = BlockPos.asLong(x, y, z);
+			if(seen.add(x, y, z)) {
+				nextLayer.add(key);
+				nextGathered.put(key, resistance);
+			} else if(nextGathered.containsKey(key) && resistance < nextGathered.get(key)) {
+				nextGathered.put(key, resistance);
+			}
+		}
+	}
+	
+	/**
+	 * The last stage of a block explosion, which applies the affected blocks to the level
+	 */
+	@FunctionalInterface
+	private interface BlockApplier {
+		public void apply(ExplosionBlockSet blocks);
+	}
+	
+	/**
+	 * Shoots a range of vectors on the worker threads, splitting it in half until it is small enough.
+	 * Every task collects into its own {@link ExplosionBlockSet}, which are merged once both halves are done.
+	 */
+	private class RayCastTask extends RecursiveTask<ExplosionBlockSet> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final ExplosionSectionSnapshot snapshot;
+		private final float[] rays, lengths;
+		private final int from, to, batch;
+		private final double factor;
+		private final float stepLength, xzStrength, yStrength, resistanceImpact;
+		private final boolean isStrongExplosion;
+		
+		private RayCastTask(ExplosionSectionSnapshot snapshot, float[] rays, float[] lengths, int from, int to, int batch, double factor, float stepLength, float xzStrength, float yStrength, float resistanceImpact, boolean isStrongExplosion) {
+			this.snapshot = snapshot;
+			this.rays = rays;
+			this.lengths = lengths;
+			this.from = from;
+			this.to = to;
+			this.batch = batch;
+			this.factor = factor;
+			this.stepLength = stepLength;
+			this.xzStrength = xzStrength;
+			this.yStrength = yStrength;
+			this.resistanceImpact = resistanceImpact;
+			this.isStrongExplosion = isStrongExplosion;
+		}
+		
+		@Override
+		protected ExplosionBlockSet compute() {
+			if(to - from <= batch) {
+				ExplosionBlockSet blocks = new ExplosionBlockSet();
+				castRays(snapshot, rays, lengths, from, to, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion, null, blocks);
+				return blocks;
+			}
+			int middle = (from + to) >>> 1;
+			RayCastTask first = new RayCastTask(snapshot, rays, lengths, from, middle, batch, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion);
+			RayCastTask second = new RayCastTask(snapshot, rays, lengths, middle, to, batch, factor, stepLength, xzStrength, yStrength, resistanceImpact, isStrongExplosion);
+			first.fork();
+			ExplosionBlockSet blocks = second.compute();
+			blocks.addAll(first.join());
+			return blocks;
+		}
+	}
 }
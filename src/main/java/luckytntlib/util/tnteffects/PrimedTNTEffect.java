@@ -5,10 +5,10 @@ import luckytntlib.entity.LTNTMinecart;
 import luckytntlib.entity.LivingPrimedLTNT;
 import luckytntlib.entity.PrimedLTNT;
 import luckytntlib.util.IExplosiveEntity;
+import luckytntlib.util.explosions.ExplosionNetworkAggregator;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.entity.Entity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
@@ -45,10 +45,13 @@ public abstract class PrimedTNTEffect{
 		 * Default logic implementation for TNT and TNT Minecarts
 		 */
 		if(entity instanceof PrimedLTNT || entity instanceof LivingPrimedLTNT || entity instanceof LTNTMinecart) {
+			if(level instanceof ServerWorld && entity.getTNTFuse() == getPrecomputeFuse(entity)) {
+				precomputeExplosion(entity);
+			}
 			if(entity.getTNTFuse() <= 0) {
 				if(entity.getLevel() instanceof ServerWorld) {
 					if(playsSound()) {
-						level.playSound((Entity)entity, new BlockPos(toBlockPos(entity.getPos())), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
+						ExplosionNetworkAggregator.playSound(level, toBlockPos(entity.getPos()), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
 					}
 					serverExplosion(entity);
 				}
@@ -68,7 +71,7 @@ public abstract class PrimedTNTEffect{
 				if(ent.getTNTFuse() == 0) {
 					if(ent.getWorld() instanceof ServerWorld) {
 						if(playsSound()) {
-							level.playSound((Entity)entity, new BlockPos(toBlockPos(entity.getPos())), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
+							ExplosionNetworkAggregator.playSound(level, toBlockPos(entity.getPos()), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
 						}
 						serverExplosion(entity);
 					}
@@ -78,7 +81,7 @@ public abstract class PrimedTNTEffect{
 			else if(airFuse() && entity.getTNTFuse() == 0) {
 				if(ent.getWorld() instanceof ServerWorld) {
 					if(playsSound()) {
-						level.playSound((Entity)entity, new BlockPos(toBlockPos(entity.getPos())), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
+						ExplosionNetworkAggregator.playSound(level, toBlockPos(entity.getPos()), SoundEvents.ENTITY_GENERIC_EXPLODE, SoundCategory.BLOCKS, 4f, (1f + (level.random.nextFloat() - level.random.nextFloat()) * 0.2f) * 0.7f);
 					}
 					serverExplosion(entity);
 				}
@@ -114,6 +117,16 @@ public abstract class PrimedTNTEffect{
 	public void serverExplosion(IExplosiveEntity entity) {	
 	}
 	
+	/**
+	 * This void is executed on the logical server side by {@link PrimedTNTEffect#baseTick(IExplosiveEntity)} once the fuse of a TNT or TNT Minecart 
+	 * reaches {@link PrimedTNTEffect#getPrecomputeFuse(IExplosiveEntity)}.
+	 * <p>
+	 * Override this void to start calculating the explosion ahead of time, so that {@link PrimedTNTEffect#serverExplosion(IExplosiveEntity)} only has to apply it.
+	 * @param entity  the {@link IExplosiveEntity} this PrimedTNTEffect belongs to.
+	 */
+	public void precomputeExplosion(IExplosiveEntity entity) {
+	}
+	
 	/**
 	 * This void is executed on both logical sides by {@link PrimedTNTEffect#baseTick(IExplosiveEntity)} every tick.
 	 * @param entity  the {@link IExplosiveEntity} this PrimedTNTEffect belongs to.
@@ -130,6 +143,15 @@ public abstract class PrimedTNTEffect{
 		return 80;
 	}
 	
+	/**
+	 * @param entity  the {@link IExplosiveEntity} this PrimedTNTEffect belongs to.
+	 * @implNote defaults to -1 (never)
+	 * @return Fuse at which {@link PrimedTNTEffect#precomputeExplosion(IExplosiveEntity)} is executed.
+	 */
+	public int getPrecomputeFuse(IExplosiveEntity entity) {
+		return -1;
+	}
+	
 	/**
 	 * @param entity  the {@link IExplosiveEntity} this PrimedTNTEffect belongs to.
 	 * @implNote defaults to 1f
@@ -8,12 +8,16 @@ import luckytntlib.block.LTNTBlock;
 import luckytntlib.entity.PrimedLTNT;
 import luckytntlib.item.LDynamiteItem;
 import luckytntlib.util.IExplosiveEntity;
+import luckytntlib.util.explosions.ExplosionCoalescer;
+import luckytntlib.util.explosions.ExplosionEngine;
+import luckytntlib.util.explosions.ExplosionPrecomputation;
 import luckytntlib.util.explosions.ImprovedExplosion;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.Entity;
 import net.minecraft.item.Item;
 import net.minecraft.item.Items;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * TNTXStrengthEffect is an extension of the {@link PrimedTNTEffect} and is an easy way to use an {@link ImprovedExplosion} as a TNT effect.
@@ -35,8 +39,12 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 	private final float size;
 	private final boolean airFuse;
 	private final boolean explodesOnImpact;
+	private final int precomputeTicks;
+	private final boolean incremental;
+	private final ExplosionEngine engine;
+	private final boolean coalesce;
 	
-	private TNTXStrengthEffect(@Nullable Supplier<Supplier<LTNTBlock>> TNT, @Nullable Supplier<Supplier<LDynamiteItem>> dynamite, int fuse, int strength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, float knockbackStrength, boolean isStrongExplosion, float size, boolean airFuse, boolean explodesOnImpact) {
+	private TNTXStrengthEffect(@Nullable Supplier<Supplier<LTNTBlock>> TNT, @Nullable Supplier<Supplier<LDynamiteItem>> dynamite, int fuse, int strength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, float knockbackStrength, boolean isStrongExplosion, float size, boolean airFuse, boolean explodesOnImpact, int precomputeTicks, boolean incremental, ExplosionEngine engine, boolean coalesce) {
 		this.TNT = TNT;
 		this.dynamite = dynamite;
 		this.fuse = fuse;
@@ -51,13 +59,40 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		this.size = size;
 		this.airFuse = airFuse;
 		this.explodesOnImpact = explodesOnImpact;
+		this.precomputeTicks = precomputeTicks;
+		this.incremental = incremental;
+		this.engine = engine;
+		this.coalesce = coalesce;
 	}
 
 	@Override
 	public void serverExplosion(IExplosiveEntity entity) {
 		ImprovedExplosion explosion = new ImprovedExplosion(entity.getLevel(), (Entity) entity, entity.getPos().x, entity.getPos().y + 0.5f, entity.getPos().z, strength);
+		explosion.setEngine(engine);
+		explosion.setPrecomputation(ExplosionPrecomputation.take((Entity) entity));
 		explosion.doEntityExplosion(knockbackStrength, true);
-		explosion.doBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+		if(coalesce && entity.getLevel() instanceof ServerWorld level) {
+			ExplosionCoalescer.get(level).submit(explosion, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion, incremental);
+		} else if(incremental) {
+			explosion.doIncrementalBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+		} else {
+			explosion.doBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, fire, isStrongExplosion);
+		}
+	}
+	
+	@Override
+	public void precomputeExplosion(IExplosiveEntity entity) {
+		ImprovedExplosion explosion = new ImprovedExplosion(entity.getLevel(), (Entity) entity, entity.getPos().x, entity.getPos().y + 0.5f, entity.getPos().z, strength);
+		explosion.setEngine(engine);
+		ExplosionPrecomputation precomputation = explosion.precomputeBlockExplosion(xzStrength, yStrength, resistanceImpact, randomVecLength, isStrongExplosion);
+		if(precomputation != null) {
+			ExplosionPrecomputation.store((Entity) entity, precomputation);
+		}
+	}
+	
+	@Override
+	public int getPrecomputeFuse(IExplosiveEntity entity) {
+		return precomputeTicks > 0 ? precomputeTicks : -1;
 	}
 	
 	@Override
@@ -103,11 +138,15 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		private float size = 1f;
 		private boolean airFuse = false;
 		private boolean explodesOnImpact = true;
+		private int precomputeTicks = 0;
+		private boolean incremental = false;
+		private ExplosionEngine engine = ExplosionEngine.RAYCAST;
+		private boolean coalesce = false;
 		
 		public Builder() {			
 		}
 		
-		private Builder(int fuse, int strength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, float knockbackStrength, boolean isStrongExplosion, float size, boolean airFuse,  boolean explodesOnImpact) {
+		private Builder(int fuse, int strength, float xzStrength, float yStrength, float resistanceImpact, float randomVecLength, boolean fire, float knockbackStrength, boolean isStrongExplosion, float size, boolean airFuse,  boolean explodesOnImpact, int precomputeTicks, boolean incremental, ExplosionEngine engine, boolean coalesce) {
 			this.fuse = fuse;
 			this.strength = strength;
 			this.xzStrength = xzStrength;
@@ -120,6 +159,10 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 			this.size = size;
 			this.airFuse = airFuse;
 			this.explodesOnImpact = explodesOnImpact;
+			this.precomputeTicks = precomputeTicks;
+			this.incremental = incremental;
+			this.engine = engine;
+			this.coalesce = coalesce;
 		}
 
 		/**
@@ -128,7 +171,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param fuse in ticks
 		 */
 		public Builder fuse(int fuse) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -137,7 +180,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param strength
 		 */
 		public Builder strength(int strength) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -146,7 +189,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param xzStrength
 		 */
 		public Builder xzStrength(float xzStrength) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -155,7 +198,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param yStrength
 		 */
 		public Builder yStrength(float yStrength) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -164,7 +207,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param resistanceImpact
 		 */
 		public Builder resistanceImpact(float resistanceImpact) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -174,7 +217,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param randomVecLength
 		 */
 		public Builder randomVecLength(float randomVecLength) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 
 		/**
@@ -183,7 +226,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param fire
 		 */
 		public Builder fire(boolean fire) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 
 		/**
@@ -192,7 +235,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param knockbackStrength
 		 */
 		public Builder knockbackStrength(float knockbackStrength) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -202,7 +245,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param isStrongExplosion
 		 */
 		public Builder isStrongExplosion(boolean isStrongExplosion) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 
 		/**
@@ -211,7 +254,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param size
 		 */
 		public Builder size(float size) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -222,7 +265,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param airFuse
 		 */
 		public Builder airFuse(boolean airFuse) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -233,7 +276,48 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @param explodesOnImpact
 		 */
 		public Builder explodesOnImpact(boolean explodesOnImpact) {
-			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
+		}
+		
+		/**
+		 * This value determines how many ticks before exploding a TNT starts to calculate its explosion on a worker thread.
+		 * The result is only used if no block within the explosion has changed in the meantime and the TNT has barely moved, otherwise the explosion is calculated as usual
+		 * @implNote only works for TNT and TNT Minecarts
+		 * @implNote defaults to 0 (disabled)
+		 * @param precomputeTicks
+		 */
+		public Builder precomputeTicks(int precomputeTicks) {
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
+		}
+		
+		/**
+		 * This boolean determines whether or not the blocks of the explosion are destroyed over multiple ticks instead of all at once.
+		 * Useful for huge explosions that would otherwise freeze the server for a moment
+		 * @implNote defaults to false
+		 * @param incremental
+		 */
+		public Builder incremental(boolean incremental) {
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
+		}
+		
+		/**
+		 * Determines the {@link ExplosionEngine} that finds the blocks destroyed by the explosion.
+		 * {@link ExplosionEngine#HIERARCHICAL} is recommended for very large explosions, {@link ExplosionEngine#FLOOD_FILL} for explosions that destroy most of their sphere
+		 * @implNote defaults to {@link ExplosionEngine#RAYCAST}
+		 * @param engine
+		 */
+		public Builder engine(ExplosionEngine engine) {
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
+		}
+		
+		/**
+		 * This boolean determines whether or not the blocks of the explosion are destroyed at the end of the tick, together with all explosions of this effect that overlap it.
+		 * Useful for large amounts of TNT exploding at once, as overlapping explosions only have to find their blocks once. Entities are still damaged by every explosion on its own
+		 * @implNote defaults to false
+		 * @param coalesce
+		 */
+		public Builder coalesce(boolean coalesce) {
+			return new Builder(fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -242,7 +326,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @return new TNTXStrengthEffect
 		 */
 		public TNTXStrengthEffect build() {
-			return new TNTXStrengthEffect(null, null, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new TNTXStrengthEffect(null, null, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -251,7 +335,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @return new TNTXStrengthEffect
 		 */
 		public TNTXStrengthEffect buildTNT(Supplier<Supplier<LTNTBlock>> TNT) {
-			return new TNTXStrengthEffect(TNT, null, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new TNTXStrengthEffect(TNT, null, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 		
 		/**
@@ -260,7 +344,7 @@ public class TNTXStrengthEffect extends PrimedTNTEffect{
 		 * @return new TNTXStrengthEffect
 		 */
 		public TNTXStrengthEffect buildDynamite(Supplier<Supplier<LDynamiteItem>> dynamite) {
-			return new TNTXStrengthEffect(null, dynamite, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact);
+			return new TNTXStrengthEffect(null, dynamite, fuse, strength, xzStrength, yStrength, resistanceImpact, randomVecLength, fire, knockbackStrength, isStrongExplosion, size, airFuse, explodesOnImpact, precomputeTicks, incremental, engine, coalesce);
 		}
 	}
 }